@@ -1,5 +1,6 @@
 import React, { createContext, useContext, useState, useEffect } from 'react';
 import { useProducts } from './ProductContext';
+import { checkoutOrder } from '../services/api';
 
 const CartContext = createContext();
 // Custom hook para usar el contexto del carrito
@@ -17,7 +18,7 @@ export const CartProvider = ({ children }) => {
   const [loading, setLoading] = useState(true);
   
   // Obtener funciones del contexto de productos
-  const { products, updateProductStock } = useProducts();
+  const { products, applyStockLevels } = useProducts();
 
   // Cargar carrito desde localStorage al iniciar
   useEffect(() => {
@@ -174,14 +175,14 @@ export const CartProvider = ({ children }) => {
     return stockErrors;
   };
 
-  // Simular proceso de compra con descuento de stock
+  // Compra: el servidor descuenta el stock y crea el pedido en una sola transacción
   const checkout = async () => {
     try {
       if (cartItems.length === 0) {
         return { success: false, error: 'El carrito está vacío' };
       }
 
-      // Validar stock antes del checkout
+      // Validar stock antes del checkout (con los datos locales; el servidor vuelve a validar)
       const stockErrors = validateCartStock();
       if (stockErrors.length > 0) {
         return { 
@@ -190,41 +191,13 @@ export const CartProvider = ({ children }) => {
         };
       }
 
-      // Preparar datos de la orden
-      const orderTotal = getTotalPrice();
       const orderItems = [...cartItems];
-      
-      // Descontar stock de cada producto
-      const stockUpdates = [];
-      for (const item of cartItems) {
-        const currentProduct = getUpdatedProduct(item.id);
-        const newStock = currentProduct.stock - item.quantity;
-        
-        stockUpdates.push({
-          productId: item.id,
-          newStock: Math.max(0, newStock) // Asegurar que no sea negativo
-        });
-      }
+      const result = await checkoutOrder(
+        cartItems.map(item => ({ productId: item.id, quantity: item.quantity }))
+      );
 
-      // Aplicar descuentos de stock (ahora con await)
-      let stockUpdateSuccess = true;
-      for (const update of stockUpdates) {
-        const result = await updateProductStock(update.productId, update.newStock);
-        console.log('Resultado actualización stock:', result);
-        if (!result.success) {
-          stockUpdateSuccess = false;
-          console.error('Error actualizando stock:', result.error);
-          break;
-        }
-      }
-      
-      console.log('Resultados de la actualización de stock:', stockUpdates);
-      if (!stockUpdateSuccess) {
-        return { 
-          success: false, 
-          error: 'Error al actualizar el stock. Intenta nuevamente.' 
-        };
-      }
+      // Actualizar el stock local con lo que quedó en el servidor
+      applyStockLevels(result.remainingStock);
 
       // Limpiar carrito después del checkout exitoso
       clearCart();
@@ -233,14 +206,28 @@ export const CartProvider = ({ children }) => {
         success: true, 
         message: 'Compra realizada con éxito. Stock actualizado.',
         order: {
-          id: Date.now(),
+          id: result.order.id,
           items: orderItems,
-          total: orderTotal,
-          date: new Date().toISOString()
+          total: result.order.total,
+          date: result.order.createdAt
         }
       };
     } catch (error) {
       console.error('Error en checkout:', error);
+      if (error.failures && error.failures.length > 0) {
+        const detail = error.failures.map(failure => {
+          const item = cartItems.find(cartItem => cartItem.id === failure.productId);
+          const name = item ? item.name : `Producto ${failure.productId}`;
+          if (failure.reason === 'NOT_FOUND') {
+            return `${name} ya no está disponible`;
+          }
+          if (failure.reason === 'UNAVAILABLE') {
+            return `${name} no está disponible en este momento, intenta nuevamente`;
+          }
+          return `${name}: solo quedan ${failure.available} unidades (pediste ${failure.requested})`;
+        });
+        return { success: false, error: 'Problemas de stock encontrados:\n' + detail.join('\n') };
+      }
       return { success: false, error: error.message };
     }
   };
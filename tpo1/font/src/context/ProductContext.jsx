@@ -323,6 +323,15 @@ export const ProductProvider = ({ children }) => {
   };
 
   // Valor que proporcionará el contexto a todos sus hijos
+  // Aplica el stock restante devuelto por el servidor (ej: después del checkout) sin recargar el catálogo
+  const applyStockLevels = (stockByProductId) => {
+    setProducts(prev => prev.map(product =>
+      stockByProductId[product.id] !== undefined
+        ? { ...product, stock: stockByProductId[product.id] }
+        : product
+    ));
+  };
+
   const value = {
     // Estados
     products,
@@ -339,6 +348,7 @@ export const ProductProvider = ({ children }) => {
 
     // Funciones temporales para compatibilidad
     updateProductStock,
+    applyStockLevels,
     createProductListing,
     deleteProduct,
     ensureDataLoaded,
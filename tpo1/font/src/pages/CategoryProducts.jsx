@@ -2,15 +2,30 @@ import React, { useState, useEffect } from 'react';
 import { useParams, useNavigate } from 'react-router-dom';
 import { useProducts } from '../context/ProductContext';
 import { useCart } from '../context/CartContext';
+import { queryProducts } from '../services/api';
 import './CategoryProducts.css';
 
+// Rangos de precio (en centavos, límites inclusivos) y órdenes que entiende GET /products
+const PRICE_RANGES = {
+  'under-5000': { maxPrice: 499999 },
+  '5000-15000': { minPrice: 500000, maxPrice: 1499999 },
+  '15000-30000': { minPrice: 1500000, maxPrice: 2999999 },
+  'over-30000': { minPrice: 3000000 }
+};
+const SORTS = {
+  'name': 'name',
+  'newest': '-createdAt',
+  'price-low': 'price',
+  'price-high': '-price'
+};
+
 const CategoryProducts = () => {
   const { categoryName } = useParams();
   const navigate = useNavigate();
   const { products, categories } = useProducts();
   const { addToCart } = useCart();
   
-  const [categoryProducts, setCategoryProducts] = useState([]);
+  const [filteredProducts, setFilteredProducts] = useState([]);
   const [sortBy, setSortBy] = useState('name');
   const [priceRange, setPriceRange] = useState('all');
 
@@ -21,54 +36,28 @@ const CategoryProducts = () => {
   const currentCategory = categories.find(cat => cat.name === decodedCategoryName);
 
   useEffect(() => {
-    // Filtrar productos por categoría
-    const filtered = products.filter(product => 
-      product.category === decodedCategoryName
-    );
-    setCategoryProducts(filtered);
-  }, [decodedCategoryName, products]);
-
-  // Obtener productos filtrados y ordenados
-  const getFilteredAndSortedProducts = () => {
-    let filtered = [...categoryProducts];
-
-    // Filtrar por rango de precio
-    if (priceRange !== 'all') {
-      switch (priceRange) {
-        case 'under-5000':
-          filtered = filtered.filter(product => product.price < 500000);
-          break;
-        case '5000-15000':
-          filtered = filtered.filter(product => product.price >= 500000 && product.price < 1500000);
-          break;
-        case '15000-30000':
-          filtered = filtered.filter(product => product.price >= 1500000 && product.price < 3000000);
-          break;
-        case 'over-30000':
-          filtered = filtered.filter(product => product.price >= 3000000);
-          break;
-        default:
-          break;
-      }
-    }
-
-    // Ordenar productos
-    const sorted = filtered.sort((a, b) => {
-      switch (sortBy) {
-        case 'price-low':
-          return a.price - b.price;
-        case 'price-high':
-          return b.price - a.price;
-        case 'name':
-        default:
-          return a.name.localeCompare(b.name);
-      }
-    });
-
-    return sorted;
-  };
+    // El filtrado y el orden los resuelve el servidor (con índices), no se descarga todo el catálogo
+    // (se vuelve a pedir cuando cambia el catálogo del contexto, p. ej. stock tras una compra)
+    let cancelled = false;
+    queryProducts({
+      category: decodedCategoryName,
+      ...(PRICE_RANGES[priceRange] || {}),
+      sort: SORTS[sortBy]
+    })
+      .then(results => {
+        if (!cancelled) setFilteredProducts(results);
+      })
+      .catch(error => {
+        console.error(error);
+        if (!cancelled) setFilteredProducts([]);
+      });
+    return () => {
+      cancelled = true;
+    };
+  }, [decodedCategoryName, priceRange, sortBy, products]);
 
-  const filteredProducts = getFilteredAndSortedProducts();
+  // Total de la categoría sin el filtro de precio
+  const categoryTotal = currentCategory ? currentCategory.productCount : 0;
 
   // Formatear precio
   const formatPrice = (price) => {
@@ -126,7 +115,7 @@ const CategoryProducts = () => {
         </p>
       </div>
 
-      {categoryProducts.length === 0 ? (
+      {categoryTotal === 0 ? (
         <div className="no-products">
           <div className="no-products-icon">📦</div>
           <h2>No hay productos en esta categoría</h2>
@@ -164,13 +153,14 @@ const CategoryProducts = () => {
                 className="sort-select"
               >
                 <option value="name">Nombre A-Z</option>
+                <option value="newest">Más recientes</option>
                 <option value="price-low">Precio: menor a mayor</option>
                 <option value="price-high">Precio: mayor a menor</option>
               </select>
             </div>
 
             <div className="results-count">
-              Mostrando {filteredProducts.length} de {categoryProducts.length} productos
+              Mostrando {filteredProducts.length} de {categoryTotal} productos
             </div>
           </div>
 
@@ -238,7 +228,7 @@ const CategoryProducts = () => {
             ))}
           </div>
 
-          {filteredProducts.length === 0 && categoryProducts.length > 0 && (
+          {filteredProducts.length === 0 && categoryTotal > 0 && (
             <div className="no-filtered-results">
               <h3>No hay productos en este rango de precio</h3>
               <p>Intenta con un rango diferente</p>
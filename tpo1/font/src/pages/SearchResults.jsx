@@ -1,13 +1,12 @@
 import React, { useState, useEffect } from 'react';
 import { useSearchParams, useNavigate } from 'react-router-dom';
-import { useProducts } from '../context/ProductContext';
 import { useCart } from '../context/CartContext';
+import { searchProducts } from '../services/api';
 import './SearchResults.css';
 
 const SearchResults = () => {
   const [searchParams] = useSearchParams();
   const navigate = useNavigate();
-  const { products } = useProducts();
   const { addToCart } = useCart();
   
   const query = searchParams.get('q') || '';
@@ -22,17 +21,17 @@ const SearchResults = () => {
     if (query.trim()) {
       performSearch(query);
     }
-  }, [query, products]);
-
-  // Función para realizar la búsqueda
-  const performSearch = (searchQuery) => {
-    const results = products.filter(product =>
-      product.name.toLowerCase().includes(searchQuery.toLowerCase()) ||
-      product.description.toLowerCase().includes(searchQuery.toLowerCase()) ||
-      product.category.toLowerCase().includes(searchQuery.toLowerCase())
-    );
-
-    setSearchResults(results);
+  }, [query]);
+
+  // Función para realizar la búsqueda (el servidor devuelve los resultados ordenados por relevancia)
+  const performSearch = async (searchQuery) => {
+    try {
+      const results = await searchProducts(searchQuery);
+      setSearchResults(results);
+    } catch (error) {
+      console.error(error);
+      setSearchResults([]);
+    }
   };
 
   // Filtrar y ordenar resultados
@@ -55,12 +54,8 @@ const SearchResults = () => {
           return a.name.localeCompare(b.name);
         case 'relevance':
         default:
-          // Ordenar por relevancia (productos que contienen el término en el nombre primero)
-          const aNameMatch = a.name.toLowerCase().includes(query.toLowerCase());
-          const bNameMatch = b.name.toLowerCase().includes(query.toLowerCase());
-          if (aNameMatch && !bNameMatch) return -1;
-          if (!aNameMatch && bNameMatch) return 1;
-          return a.name.localeCompare(b.name);
+          // Mantener el orden de relevancia que devuelve el servidor
+          return 0;
       }
     });
 
@@ -87,6 +87,46 @@ export const fetchProductById = async (id) => {
   }
 };
 
+// Función para buscar productos en el servidor (índice full-text, ordenado por relevancia)
+export const searchProducts = async (query, limit = 50) => {
+  try {
+    const params = new URLSearchParams({ q: query, limit: String(limit) });
+    const response = await fetch(`${API_BASE_URL}/products/search?${params}`);
+
+    if (!response.ok) {
+      throw new Error('Error al buscar productos');
+    }
+
+    const products = await response.json();
+    return products;
+  } catch (error) {
+    throw new Error(`Error al buscar productos: ${error.message}`);
+  }
+};
+
+// Función para listar productos con filtros y orden resueltos en el servidor
+// filters: { category, minPrice, maxPrice, inStock, sellerId, sort } (precios en centavos; sort: price, -price, name, -createdAt...)
+export const queryProducts = async (filters = {}) => {
+  try {
+    const params = new URLSearchParams();
+    Object.entries(filters).forEach(([key, value]) => {
+      if (value !== undefined && value !== null && value !== '') {
+        params.append(key, String(value));
+      }
+    });
+    const response = await fetch(`${API_BASE_URL}/products?${params}`);
+
+    if (!response.ok) {
+      throw new Error('Error al obtener productos');
+    }
+
+    const products = await response.json();
+    return products;
+  } catch (error) {
+    throw new Error(`Error al cargar productos: ${error.message}`);
+  }
+};
+
 // Función para obtener productos por categoría
 export const fetchProductsByCategory = async (categoryName) => {
   try {
@@ -203,23 +243,43 @@ export const updateProduct = async (id, productData) => {
 };
 
 // Función específica para actualizar solo el stock
+// PATCH /products/{id}/stock: un solo UPDATE en el backend, sin reenviar el producto completo
 export const updateProductStock = async (id, newStock) => {
   try {
-    // Primero obtenemos el producto actual
-    const currentProduct = await fetchProductById(id);
-    
-    // Actualizamos solo el stock
-    const updatedProduct = await updateProduct(id, {
-      ...currentProduct,
-      stock: newStock
+    const response = await fetch(`${API_BASE_URL}/products/${id}/stock`, {
+      method: 'PATCH',
+      headers: getAuthHeaders({ 'Content-Type': 'application/json' }),
+      body: JSON.stringify({ set: newStock })
     });
-    console.log('Stock actualizado:', updatedProduct);
-    return updatedProduct;
+
+    if (!response.ok) {
+      throw new Error('Error al actualizar el stock');
+    }
+
+    return await response.json();
   } catch (error) {
     throw new Error(`Error al actualizar stock: ${error.message}`);
   }
 };
 
+// Checkout atómico en el servidor: descuenta stock, calcula el total y crea el pedido con sus líneas.
+// Si alguna línea no se puede cumplir el servidor responde 409 con el detalle por producto.
+export const checkoutOrder = async (items) => {
+  const response = await fetch(`${API_BASE_URL}/orders/checkout`, {
+    method: 'POST',
+    headers: getAuthHeaders({ 'Content-Type': 'application/json' }),
+    body: JSON.stringify({ items })
+  });
+
+  const body = await response.json().catch(() => ({}));
+  if (!response.ok) {
+    const error = new Error(body.error || 'Error al procesar la compra');
+    error.failures = body.failures || [];
+    throw error;
+  }
+  return body;
+};
+
 // Función para crear una nueva categoría
 export const createCategory = async (categoryData) => {
   try {
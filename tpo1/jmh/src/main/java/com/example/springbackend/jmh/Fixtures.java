@@ -0,0 +1,176 @@
+package com.example.springbackend.jmh;
+
+import com.example.springbackend.config.JwtUtil;
+import com.example.springbackend.dto.ProductDTO;
+import com.example.springbackend.model.Category;
+import com.example.springbackend.model.Order;
+import com.example.springbackend.model.Product;
+import com.example.springbackend.repository.CategoryRepository;
+import com.example.springbackend.service.CategoryLookup;
+import com.example.springbackend.service.ImageStorageService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Test data and hand-built services shared by the benchmarks (no Spring context, no database).
+ * Values mirror application.properties, the seed migration (V2__seed_data.sql, read for the category
+ * names) and the Order statuses; the Random is seeded so every fork measures the same data.
+ */
+final class Fixtures {
+
+    static final String JWT_SECRET = "mySecretKeyForJWT2025EcommerceApplicationThisIsVerySecure123456789";
+    static final long JWT_EXPIRATION = 86_400_000L;
+    static final String PUBLIC_BASE_URL = "http://localhost:3000";
+
+    private static final String SEED_MIGRATION = "db/migration/V2__seed_data.sql";
+    private static final Pattern SEED_CATEGORY =
+            Pattern.compile("INSERT INTO categories \\([^)]*\\) VALUES \\((\\d+), '([^']*)'");
+
+    // categories of the seed migration, index = id - 1
+    static final String[] CATEGORY_NAMES = seedCategoryNames();
+
+    private Fixtures() {
+    }
+
+    static JwtUtil jwtUtil() {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", JWT_SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", JWT_EXPIRATION);
+        return jwtUtil;
+    }
+
+    static ImageStorageService imageStorageService() {
+        // only toPublicUrl is exercised, nothing is written under the storage dir
+        return new ImageStorageService(System.getProperty("java.io.tmpdir") + "/jmh-images", PUBLIC_BASE_URL);
+    }
+
+    /**
+     * CategoryLookup over an in-memory CategoryRepository (only the methods the lookup calls are implemented)
+     */
+    static CategoryLookup categoryLookup() {
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < CATEGORY_NAMES.length; i++) {
+            categories.add(Category.builder().id((long) i + 1).name(CATEGORY_NAMES[i]).productCount(0).build());
+        }
+        CategoryRepository repository = (CategoryRepository) Proxy.newProxyInstance(
+                CategoryRepository.class.getClassLoader(), new Class<?>[]{CategoryRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findAll" -> categories;
+                    case "findAllById" -> {
+                        List<Category> found = new ArrayList<>();
+                        for (Object id : (Iterable<?>) args[0]) {
+                            categories.stream().filter(c -> c.getId().equals(id)).forEach(found::add);
+                        }
+                        yield found;
+                    }
+                    case "findByName" -> categories.stream()
+                            .filter(c -> c.getName().equals(args[0])).findFirst().orElse(null);
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemoryCategoryRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        return new CategoryLookup(repository);
+    }
+
+    static List<Product> products(int size) {
+        Random random = new Random(42);
+        Instant base = Instant.parse("2025-01-01T00:00:00Z");
+        List<Product> products = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Product p = new Product();
+            p.setId((long) i + 1);
+            p.setName("Producto " + (i + 1));
+            p.setPrice(1_000 + random.nextInt(500_000));
+            p.setCategoryId((long) random.nextInt(CATEGORY_NAMES.length) + 1);
+            p.setDescription("Descripción del producto " + (i + 1) + " con algunos detalles de ejemplo");
+            p.setImage(ImageStorageService.PATH_PREFIX + hash(random));
+            p.setStock(random.nextInt(100));
+            p.setCreatedAt(base.plusSeconds(i * 3_600L));
+            p.setUserId((long) random.nextInt(20) + 1);
+            products.add(p);
+        }
+        return products;
+    }
+
+    static List<Order> orders(int size) {
+        Random random = new Random(42);
+        Instant base = Instant.parse("2025-01-01T00:00:00Z");
+        List<Order> orders = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Order o = new Order();
+            o.setUserId((long) random.nextInt(20) + 1);
+            o.setCreatedAt(base.plusSeconds(i * 600L));
+            o.setTotal(random.nextInt(1_000_000) / 100.0);
+            o.setStatus(i % 3 == 0 ? Order.PENDIENTE : Order.COMPLETADO);
+            orders.add(o);
+        }
+        return orders;
+    }
+
+    /**
+     * ProductDTOs as returned by the API; with base64Bytes > 0 the image is an inline data URI of that
+     * many bytes (how images were stored before the blob store), otherwise a public URL
+     */
+    static List<ProductDTO> productDtos(int size, int base64Bytes) {
+        Random random = new Random(42);
+        String inline = null;
+        if (base64Bytes > 0) {
+            byte[] content = new byte[base64Bytes];
+            random.nextBytes(content);
+            inline = "data:image/jpeg;base64," + Base64.getEncoder().encodeToString(content);
+        }
+        List<ProductDTO> dtos = new ArrayList<>(size);
+        for (Product p : products(size)) {
+            String image = inline != null ? inline : PUBLIC_BASE_URL + p.getImage();
+            dtos.add(new ProductDTO(p.getId(), p.getName(), p.getPrice(),
+                    CATEGORY_NAMES[(int) (p.getCategoryId() - 1)], p.getCategoryId(), p.getDescription(), image,
+                    p.getStock(), p.getCreatedAt(), p.getUserId(), 0L));
+        }
+        return dtos;
+    }
+
+    /**
+     * Category names read from V2__seed_data.sql on the application classpath, so they cannot drift from it
+     */
+    private static String[] seedCategoryNames() {
+        String sql;
+        try (InputStream in = Fixtures.class.getClassLoader().getResourceAsStream(SEED_MIGRATION)) {
+            if (in == null) throw new IllegalStateException(SEED_MIGRATION + " not found on the classpath");
+            sql = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        TreeMap<Long, String> names = new TreeMap<>();
+        Matcher matcher = SEED_CATEGORY.matcher(sql);
+        while (matcher.find()) {
+            names.put(Long.parseLong(matcher.group(1)), matcher.group(2));
+        }
+        if (names.isEmpty() || names.firstKey() != 1 || names.lastKey() != names.size()) {
+            throw new IllegalStateException("Expected categories with ids 1.." + names.size() + " in "
+                    + SEED_MIGRATION + ": " + names);
+        }
+        return names.values().toArray(new String[0]);
+    }
+
+    private static String hash(Random random) {
+        StringBuilder sb = new StringBuilder(64);
+        for (int i = 0; i < 64; i++) {
+            sb.append(Character.forDigit(random.nextInt(16), 16));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.springbackend.jmh;
+
+import com.example.springbackend.config.JwtFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtFilter.doFilterInternal (through OncePerRequestFilter.doFilter) for a request with a valid
+ * Bearer token and for an anonymous one. The UserDetailsService is an in-memory stub, so the numbers
+ * are the filter's own cost without the user lookup query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private static final String EMAIL = "usuario@example.com";
+
+    @Param({"bearer", "anonymous"})
+    public String auth;
+
+    private JwtFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private final FilterChain chain = (req, res) -> { };
+
+    @Setup
+    public void setup() {
+        UserDetailsService userDetailsService = username -> User.withUsername(username)
+                .password("{noop}secret")
+                .roles("USER")
+                .build();
+        filter = new JwtFilter(Fixtures.jwtUtil(), userDetailsService);
+        request = new MockHttpServletRequest("GET", "/orders");
+        if ("bearer".equals(auth)) {
+            String token = Fixtures.jwtUtil().generateToken(EMAIL, Set.of("USER"));
+            request.addHeader("Authorization", "Bearer " + token);
+        }
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Object doFilter() throws ServletException, IOException {
+        try {
+            filter.doFilter(request, response, chain);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            // every request starts with an empty context, as with the real SecurityContextHolderFilter
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
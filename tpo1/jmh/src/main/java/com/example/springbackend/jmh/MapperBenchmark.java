@@ -0,0 +1,62 @@
+package com.example.springbackend.jmh;
+
+import com.example.springbackend.dto.OrderDTO;
+import com.example.springbackend.dto.ProductDTO;
+import com.example.springbackend.mapping.OrderMapper;
+import com.example.springbackend.mapping.ProductMapper;
+import com.example.springbackend.model.Order;
+import com.example.springbackend.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity -> DTO mapping of a page (20) and of a full listing (1000).
+ * The CategoryLookup is warmed in setup, as it is after the first request in the running app.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"20", "1000"})
+    public int size;
+
+    private ProductMapper productMapper;
+    private OrderMapper orderMapper;
+    private List<Product> products;
+    private List<Order> orders;
+
+    @Setup
+    public void setup() {
+        productMapper = new ProductMapper(Fixtures.imageStorageService(), Fixtures.categoryLookup());
+        orderMapper = new OrderMapper();
+        products = Fixtures.products(size);
+        orders = Fixtures.orders(size);
+        productMapper.toDtoList(products);
+    }
+
+    @Benchmark
+    public List<ProductDTO> productToDtoList() {
+        return productMapper.toDtoList(products);
+    }
+
+    @Benchmark
+    public List<OrderDTO> orderToDtoList() {
+        return orderMapper.toDtoList(orders);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.springbackend.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+
+import java.io.FileNotFoundException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and status counts of one operation.
+ * Response callbacks record into the Recorder; the reporter thread swaps out an interval histogram
+ * every --interval, appends it to {operation}.hlog and adds it to the run total.
+ * Values are nanoseconds (HdrHistogram's log tools report them in milliseconds by default).
+ */
+final class EndpointStats {
+
+    final Operation operation;
+    private final Recorder recorder = new Recorder(3);
+    private final Histogram total = new Histogram(3);
+    private final HistogramLogWriter log;
+
+    final LongAdder success = new LongAdder();
+    final LongAdder clientErrors = new LongAdder();
+    final LongAdder serverErrors = new LongAdder();
+
+    EndpointStats(Operation operation, Path outputDir, long startMillis) throws FileNotFoundException {
+        this.operation = operation;
+        this.log = new HistogramLogWriter(outputDir.resolve(operation.key + ".hlog").toFile());
+        log.outputComment("[" + operation.label + "] latency in ns, measured from the scheduled send time");
+        log.outputLogFormatVersion();
+        log.setBaseTime(startMillis);
+        log.outputStartTime(startMillis);
+        log.outputLegend();
+    }
+
+    /**
+     * @param status HTTP status, or 0 when the request failed without a response (timeout, connection error)
+     */
+    void record(long latencyNanos, int status) {
+        recorder.recordValue(latencyNanos);
+        if (status >= 200 && status < 400) {
+            success.increment();
+        } else if (status >= 400 && status < 500) {
+            clientErrors.increment();
+        } else {
+            serverErrors.increment();
+        }
+    }
+
+    /**
+     * Called by the reporter thread only
+     */
+    void flushInterval() {
+        Histogram interval = recorder.getIntervalHistogram();
+        interval.setTag(operation.key);
+        log.outputIntervalHistogram(interval);
+        total.add(interval);
+    }
+
+    Histogram total() {
+        return total;
+    }
+
+    void close() {
+        log.close();
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.springbackend.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Summary table of a run: per operation and overall throughput, status counts and latency percentiles (ms)
+ */
+final class LatencyReport {
+
+    private static final String HEADER = String.format(Locale.ROOT,
+            "%-24s %9s %9s %8s %8s %8s %9s %9s %9s %9s %9s",
+            "endpoint", "requests", "req/s", "ok", "4xx", "5xx/err", "p50", "p95", "p99", "p99.9", "max");
+
+    private LatencyReport() {
+    }
+
+    static void print(List<EndpointStats> stats, LoadTestOptions options, PrintStream out) {
+        double seconds = options.duration().toMillis() / 1000.0;
+        out.printf(Locale.ROOT, "rate=%d req/s duration=%ds warmup=%ds concurrency=%d seed=%d%n",
+                options.rate(), options.duration().toSeconds(), options.warmup().toSeconds(),
+                options.concurrency(), options.seed());
+        out.println(HEADER);
+        Histogram all = new Histogram(3);
+        long ok = 0, client = 0, server = 0;
+        for (EndpointStats s : stats) {
+            row(out, s.operation.label, s.total(), seconds, s.success.sum(), s.clientErrors.sum(),
+                    s.serverErrors.sum());
+            all.add(s.total());
+            ok += s.success.sum();
+            client += s.clientErrors.sum();
+            server += s.serverErrors.sum();
+        }
+        row(out, "all", all, seconds, ok, client, server);
+    }
+
+    private static void row(PrintStream out, String label, Histogram h, double seconds, long ok, long client,
+            long server) {
+        out.printf(Locale.ROOT, "%-24s %9d %9.1f %8d %8d %8d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                label, h.getTotalCount(), h.getTotalCount() / seconds, ok, client, server,
+                ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(95)), ms(h.getValueAtPercentile(99)),
+                ms(h.getValueAtPercentile(99.9)), ms(h.getMaxValue()));
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
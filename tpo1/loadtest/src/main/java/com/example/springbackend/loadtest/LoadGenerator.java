@@ -0,0 +1,106 @@
+package com.example.springbackend.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop generator: request i is scheduled at start + i / rate regardless of how long earlier
+ * ones take, and its latency is measured from that scheduled time. A slow server therefore shows up
+ * as queueing in the percentiles instead of silently lowering the offered load (coordinated omission).
+ * At most --concurrency requests are in flight; beyond that the sender waits, and the wait is included
+ * in the latency of the requests that were due meanwhile.
+ */
+final class LoadGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private final LoadTestOptions options;
+    private final Workload workload;
+    private final HttpClient client;
+
+    LoadGenerator(LoadTestOptions options, Workload workload, HttpClient client) {
+        this.options = options;
+        this.workload = workload;
+        this.client = client;
+    }
+
+    /**
+     * Sends the warmup and the measured load, returns the stats of every operation in the mix
+     */
+    List<EndpointStats> run() throws IOException {
+        Files.createDirectories(options.outputDir());
+        long intervalNanos = 1_000_000_000L / options.rate();
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup().toNanos();
+        long end = measureFrom + options.duration().toNanos();
+        long measureFromMillis = System.currentTimeMillis() + options.warmup().toMillis();
+
+        Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+        for (Map.Entry<Operation, Integer> e : options.mix().entrySet()) {
+            if (e.getValue() > 0) {
+                stats.put(e.getKey(), new EndpointStats(e.getKey(), options.outputDir(), measureFromMillis));
+            }
+        }
+
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "loadtest-reporter");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = options.reportInterval().toNanos();
+        reporter.scheduleAtFixedRate(() -> stats.values().forEach(EndpointStats::flushInterval),
+                measureFrom - System.nanoTime() + period, period, TimeUnit.NANOSECONDS);
+
+        log.info("Sending {} req/s for {}s (+{}s warmup), at most {} in flight", options.rate(),
+                options.duration().toSeconds(), options.warmup().toSeconds(), options.concurrency());
+        Semaphore inFlight = new Semaphore(options.concurrency());
+        for (long i = 0; ; i++) {
+            long scheduled = start + i * intervalNanos;
+            if (scheduled >= end) break;
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+
+            Operation op = workload.nextOperation();
+            HttpRequest request = workload.request(op);
+            inFlight.acquireUninterruptibly();
+            boolean measured = scheduled >= measureFrom;
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                long latency = System.nanoTime() - scheduled;
+                inFlight.release();
+                if (measured) {
+                    stats.get(op).record(latency, error == null ? response.statusCode() : 0);
+                }
+            });
+        }
+        // let the requests still in flight complete before the last interval is taken
+        inFlight.acquireUninterruptibly(options.concurrency());
+
+        reporter.shutdown();
+        try {
+            reporter.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<EndpointStats> result = new ArrayList<>(stats.values());
+        for (EndpointStats s : result) {
+            s.flushInterval();
+            s.close();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.springbackend.loadtest;
+
+import com.example.springbackend.SpringBackendApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Load test entry point.
+ * Without --target it starts SpringBackendApplication in-process with the "perf" and "loadtest" profiles
+ * (H2 in memory with a generated catalog, random port), prepares the workload through the API, replays the mix and writes
+ * {out}/{operation}.hlog plus {out}/summary.txt. See README.md for the options.
+ */
+public final class LoadTestMain {
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ConfigurableApplicationContext app = null;
+        URI base;
+        if (options.target() != null) {
+            base = URI.create(options.target());
+        } else {
+            app = new SpringApplicationBuilder(SpringBackendApplication.class)
+                    .profiles("perf", "loadtest")
+                    .run(options.springArgs().toArray(String[]::new));
+            base = URI.create("http://localhost:" + app.getEnvironment().getProperty("local.server.port"));
+        }
+        try {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            Workload workload = new Workload(base, client, options);
+            workload.setup();
+            List<EndpointStats> stats = new LoadGenerator(options, workload, client).run();
+
+            ByteArrayOutputStream summary = new ByteArrayOutputStream();
+            try (PrintStream out = new PrintStream(summary, true, StandardCharsets.UTF_8)) {
+                LatencyReport.print(stats, options, out);
+            }
+            Files.write(options.outputDir().resolve("summary.txt"), summary.toByteArray());
+            System.out.print(summary.toString(StandardCharsets.UTF_8));
+            System.out.println("Histogram logs in " + options.outputDir().toAbsolutePath());
+        } finally {
+            if (app != null) app.close();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.springbackend.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line of the load test. Generator options are --name=value; any other argument
+ * (e.g. --server.port=3000, --logging.level.root=INFO) is passed on to the embedded application.
+ *
+ * @param target         base URL of a running server; null boots the app on the embedded database
+ * @param rate           requests per second, scheduled at fixed intervals whether or not earlier ones finished
+ * @param duration       measured time, after the warmup
+ * @param warmup         time sent at the same rate but not recorded
+ * @param concurrency    maximum requests in flight; when reached, sending waits and the wait counts as latency
+ * @param users          accounts registered before the run (login, create and checkout pick one at random)
+ * @param seed           seed of the operation mix and of the request parameters
+ * @param skew           Zipf exponent of the product detail ids (rank 1 = lowest id, as in PerfDataGenerator)
+ * @param outputDir      where the .hlog files and summary.txt are written
+ * @param reportInterval length of each interval histogram in the logs
+ * @param mix            relative weight of each operation
+ * @param springArgs     arguments that are not generator options
+ */
+record LoadTestOptions(String target, int rate, Duration duration, Duration warmup, int concurrency, int users,
+        long seed, double skew, Path outputDir, Duration reportInterval, Map<Operation, Integer> mix,
+        List<String> springArgs) {
+
+    static LoadTestOptions parse(String[] args) {
+        String target = null;
+        int rate = 200;
+        Duration duration = Duration.ofSeconds(60);
+        Duration warmup = Duration.ofSeconds(10);
+        int concurrency = 64;
+        int users = 50;
+        long seed = 42;
+        double skew = 0.99;
+        Path outputDir = Path.of("target", "loadtest");
+        Duration reportInterval = Duration.ofSeconds(1);
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (Operation op : Operation.values()) {
+            mix.put(op, op.defaultWeight);
+        }
+        List<String> springArgs = new ArrayList<>();
+
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            String name = arg.startsWith("--") && eq > 2 ? arg.substring(2, eq) : "";
+            String value = eq > 0 ? arg.substring(eq + 1) : "";
+            switch (name) {
+                case "target" -> target = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+                case "rate" -> rate = positive(name, Integer.parseInt(value));
+                case "duration" -> duration = duration(value);
+                case "warmup" -> warmup = duration(value);
+                case "concurrency" -> concurrency = positive(name, Integer.parseInt(value));
+                case "users" -> users = positive(name, Integer.parseInt(value));
+                case "seed" -> seed = Long.parseLong(value);
+                case "skew" -> skew = Double.parseDouble(value);
+                case "out" -> outputDir = Path.of(value);
+                case "interval" -> reportInterval = duration(value);
+                case "mix" -> {
+                    // operations left out of --mix are not sent
+                    mix.replaceAll((op, weight) -> 0);
+                    for (String part : value.split(",")) {
+                        String[] kv = part.split(":");
+                        mix.put(Operation.byKey(kv[0].trim()), Integer.parseInt(kv[1].trim()));
+                    }
+                }
+                default -> springArgs.add(arg);
+            }
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("--mix must give a positive weight to at least one operation");
+        }
+        return new LoadTestOptions(target, rate, duration, warmup, concurrency, users, seed, skew, outputDir,
+                reportInterval, mix, springArgs);
+    }
+
+    /**
+     * 90s, 2m, 500ms or a number of seconds
+     */
+    private static Duration duration(String value) {
+        if (value.endsWith("ms")) return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        if (value.endsWith("s")) return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        if (value.endsWith("m")) return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    private static int positive(String name, int value) {
+        if (value <= 0) throw new IllegalArgumentException("--" + name + " must be > 0");
+        return value;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.springbackend.loadtest;
+
+/**
+ * Requests in the workload mix. The default weights approximate the storefront: mostly browsing,
+ * a few logins and new listings, checkouts as the main write path.
+ * Override them with --mix=products:40,detail:30,... (keys as in {@link #key}).
+ */
+enum Operation {
+
+    PRODUCTS_PAGE("products", "GET /products", 35),
+    CATEGORIES("categories", "GET /categories", 10),
+    PRODUCT_DETAIL("detail", "GET /products/{id}", 30),
+    LOGIN("login", "POST /api/auth/login", 5),
+    CREATE_PRODUCT("create", "POST /products", 5),
+    CHECKOUT("checkout", "POST /orders/checkout", 15);
+
+    final String key;
+    final String label;
+    final int defaultWeight;
+
+    Operation(String key, String label, int defaultWeight) {
+        this.key = key;
+        this.label = label;
+        this.defaultWeight = defaultWeight;
+    }
+
+    static Operation byKey(String key) {
+        for (Operation op : values()) {
+            if (op.key.equals(key)) return op;
+        }
+        throw new IllegalArgumentException("Unknown operation in --mix: " + key);
+    }
+}
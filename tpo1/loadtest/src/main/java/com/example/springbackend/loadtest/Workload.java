@@ -0,0 +1,195 @@
+package com.example.springbackend.loadtest;
+
+import com.example.springbackend.service.ZipfSampler;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Test data and request factory of the load test.
+ * setup() prepares what the mix needs through the public API (accounts with their tokens, the catalog ids
+ * and a few products with plenty of stock so checkouts do not turn into 409s); afterwards
+ * nextOperation/request are called from the single scheduling thread, so the seeded random makes the
+ * sequence of requests the same on every run.
+ */
+final class Workload {
+
+    private static final Logger log = LoggerFactory.getLogger(Workload.class);
+
+    static final String PASSWORD = "loadtest123";
+    private static final int STOCKED_PRODUCTS = 20;
+    private static final int STOCKED_UNITS = 10_000_000;
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final URI base;
+    private final HttpClient client;
+    private final LoadTestOptions options;
+    private final ObjectMapper json = new ObjectMapper();
+    private final SplittableRandom random;
+
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    private final List<Account> accounts = new ArrayList<>();
+    private final List<String> categories = new ArrayList<>();
+    private final List<Long> productIds = new ArrayList<>();
+    private final List<Long> stockedIds = new ArrayList<>();
+    private ZipfSampler productSampler;
+    private long created;
+
+    record Account(Long id, String email, String token) {
+    }
+
+    Workload(URI base, HttpClient client, LoadTestOptions options) {
+        this.base = base;
+        this.client = client;
+        this.options = options;
+        this.random = new SplittableRandom(options.seed());
+        List<Operation> ops = new ArrayList<>();
+        List<Integer> cumulative = new ArrayList<>();
+        int sum = 0;
+        for (Map.Entry<Operation, Integer> e : options.mix().entrySet()) {
+            if (e.getValue() <= 0) continue;
+            sum += e.getValue();
+            ops.add(e.getKey());
+            cumulative.add(sum);
+        }
+        this.operations = ops.toArray(Operation[]::new);
+        this.cumulativeWeights = cumulative.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    void setup() throws IOException, InterruptedException {
+        for (JsonNode category : send(get("/categories"))) {
+            categories.add(category.get("name").asText());
+        }
+        // emails include the seed so re-running against the same --target server logs in instead
+        for (int i = 0; i < options.users(); i++) {
+            String email = "loadtest-" + options.seed() + "-" + i + "@example.com";
+            accounts.add(register(email));
+        }
+        Account seller = accounts.get(0);
+        for (int i = 0; i < STOCKED_PRODUCTS; i++) {
+            JsonNode product = send(authorized(post("/products", productBody(seller, STOCKED_UNITS)), seller));
+            stockedIds.add(product.get("id").asLong());
+        }
+        for (JsonNode product : send(get("/products?fields=id"))) {
+            productIds.add(product.get("id").asLong());
+        }
+        // popular products are the low ids, like the order items written by PerfDataGenerator
+        Collections.sort(productIds);
+        productSampler = new ZipfSampler(productIds.size(), options.skew());
+        log.info("Workload ready: {} accounts, {} categories, {} products ({} stocked for checkout)",
+                accounts.size(), categories.size(), productIds.size(), stockedIds.size());
+    }
+
+    Operation nextOperation() {
+        int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) return operations[i];
+        }
+        return operations[operations.length - 1];
+    }
+
+    HttpRequest request(Operation op) {
+        return switch (op) {
+            case PRODUCTS_PAGE -> {
+                // half of the listings are a category page, like the storefront navigation
+                if (categories.isEmpty() || random.nextBoolean()) yield get("/products?limit=20").build();
+                String category = categories.get(random.nextInt(categories.size()));
+                yield get("/products?limit=20&category=" + URLEncoder.encode(category, StandardCharsets.UTF_8)).build();
+            }
+            case CATEGORIES -> get("/categories").build();
+            case PRODUCT_DETAIL -> get("/products/" + productIds.get(productSampler.sample(random) - 1)).build();
+            case LOGIN -> {
+                Account account = randomAccount();
+                yield post("/api/auth/login", Map.of("email", account.email(), "password", PASSWORD)).build();
+            }
+            case CREATE_PRODUCT -> {
+                Account account = randomAccount();
+                yield authorized(post("/products", productBody(account, 1 + random.nextInt(100))), account).build();
+            }
+            case CHECKOUT -> {
+                Account account = randomAccount();
+                List<Map<String, Object>> items = new ArrayList<>();
+                int lines = 1 + random.nextInt(3);
+                int first = random.nextInt(stockedIds.size());
+                for (int i = 0; i < lines && i < stockedIds.size(); i++) {
+                    items.add(Map.of("productId", stockedIds.get((first + i) % stockedIds.size()),
+                            "quantity", 1 + random.nextInt(2)));
+                }
+                yield authorized(post("/orders/checkout", Map.of("items", items)), account).build();
+            }
+        };
+    }
+
+    private Account randomAccount() {
+        return accounts.get(random.nextInt(accounts.size()));
+    }
+
+    private Account register(String email) throws IOException, InterruptedException {
+        Map<String, Object> body = Map.of("nombre", "Load", "apellido", "Test", "email", email, "password", PASSWORD);
+        HttpResponse<String> response = client.send(post("/api/auth/register", body).build(),
+                HttpResponse.BodyHandlers.ofString());
+        JsonNode auth = response.statusCode() / 100 == 2
+                ? json.readTree(response.body())
+                : send(post("/api/auth/login", Map.of("email", email, "password", PASSWORD)));
+        return new Account(auth.get("id").asLong(), email, auth.get("token").asText());
+    }
+
+    private Map<String, Object> productBody(Account seller, int stock) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        long n = ++created;
+        body.put("name", "Producto de carga " + options.seed() + "-" + n);
+        body.put("price", 1_000 + random.nextInt(200_000));
+        if (!categories.isEmpty()) body.put("category", categories.get(random.nextInt(categories.size())));
+        body.put("description", "Publicado por el generador de carga");
+        body.put("stock", stock);
+        body.put("userId", seller.id());
+        return body;
+    }
+
+    private JsonNode send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        HttpRequest built = request.build();
+        HttpResponse<String> response = client.send(built, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Setup request " + built.method() + " " + built.uri() + " answered "
+                    + response.statusCode() + ": " + response.body());
+        }
+        return json.readTree(response.body());
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(base.resolve(path)).timeout(TIMEOUT).GET();
+    }
+
+    private HttpRequest.Builder post(String path, Object body) {
+        try {
+            return HttpRequest.newBuilder(base.resolve(path))
+                    .timeout(TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(json.writeValueAsString(body)));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot serialize request body", e);
+        }
+    }
+
+    private static HttpRequest.Builder authorized(HttpRequest.Builder request, Account account) {
+        return request.header("Authorization", "Bearer " + account.token());
+    }
+}
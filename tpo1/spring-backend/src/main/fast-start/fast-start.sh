@@ -0,0 +1,67 @@
+#!/bin/sh
+# Fast-start launcher: Spring AOT initializers + AppCDS archive (build with: mvn -Pfast-start package).
+#
+#   fast-start.sh train     training run on an in-memory H2: starts, sends a few requests, exits and
+#                           writes the class data sharing archive ($CDS_ARCHIVE)
+#   fast-start.sh check     the same run using the archive; exits 1 when the time to first request is above
+#                           $STARTUP_TTFR_MAX_MS (0 = only report)
+#   fast-start.sh smoke     the same scenario (catalog, auth, product, checkout, orders) against $APP_BIN when
+#                           set (the native executable of mvn -Pnative) or the jar; exits 1 when a request does
+#                           not answer 2xx or the time to first request is above $STARTUP_TTFR_MAX_MS
+#   fast-start.sh [args]    starts the application with the archive (when present) and the AOT initializers
+#
+# The archive is only valid for the same JVM and the same jar paths: create it where the app runs
+# (the Dockerfile does it while building the image).
+#
+# -Dspring.aot.enabled=true runs the bean definitions generated by process-aot, where the active profiles and
+# every @Profile / @ConditionalOnProperty were decided at build time: perf, spring.threads.virtual.enabled,
+# datasource.limiter.enabled, catalog.query-plans.verify, the migrate-on-startup jobs, ... cannot be switched
+# here. Plain @Value settings (ports, URLs, catalog.reactive.enabled, the training flags) still apply.
+# AotBuildCheck stops the start when the profiles or those properties differ from the build; build for the
+# runtime values instead (SPRING_PROFILES_ACTIVE=perf mvn -Pfast-start verify).
+set -e
+
+APP_HOME="${APP_HOME:-$(cd "$(dirname "$0")" && pwd)}"
+APP_JAR="${APP_JAR:-$APP_HOME/app.jar}"
+CDS_ARCHIVE="${CDS_ARCHIVE:-$APP_HOME/app.jsa}"
+STARTUP_REPORT="${STARTUP_REPORT:-$APP_HOME/startup-report.txt}"
+JAVA="${JAVA:-java}"
+
+TRAINING_ARGS="--startup.training.enabled=true --server.port=0 \
+ --spring.datasource.url=jdbc:h2:mem:training;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1 \
+ --spring.datasource.username=sa --spring.datasource.password= --spring.datasource.driver-class-name=org.h2.Driver \
+ --catalog.reactive.r2dbc.url=r2dbc:h2:mem:///training?options=MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1 \
+ --catalog.reactive.r2dbc.username=sa --catalog.reactive.r2dbc.password= --catalog.reactive.port=0 \
+ --spring.jpa.hibernate.ddl-auto=none --spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect \
+ --spring.jpa.show-sql=false --images.storage-dir=${TMPDIR:-/tmp}/fast-start-images \
+ --startup.report.file=$STARTUP_REPORT"
+
+case "$1" in
+  train)
+    shift
+    rm -f "$CDS_ARCHIVE"
+    exec "$JAVA" -XX:ArchiveClassesAtExit="$CDS_ARCHIVE" -Dspring.aot.enabled=true \
+      -jar "$APP_JAR" $TRAINING_ARGS "$@"
+    ;;
+  check)
+    shift
+    exec "$JAVA" -XX:SharedArchiveFile="$CDS_ARCHIVE" -Xshare:auto -Dspring.aot.enabled=true \
+      -jar "$APP_JAR" $TRAINING_ARGS --startup.time-to-first-request.max-ms="${STARTUP_TTFR_MAX_MS:-0}" "$@"
+    ;;
+  smoke)
+    shift
+    SMOKE_ARGS="$TRAINING_ARGS --startup.training.fail-on-error=true \
+ --startup.time-to-first-request.max-ms=${STARTUP_TTFR_MAX_MS:-0}"
+    if [ -n "$APP_BIN" ]; then
+      exec "$APP_BIN" $SMOKE_ARGS "$@"
+    fi
+    exec "$JAVA" -jar "$APP_JAR" $SMOKE_ARGS "$@"
+    ;;
+  *)
+    CDS_OPTS=""
+    if [ -f "$CDS_ARCHIVE" ]; then
+      CDS_OPTS="-XX:SharedArchiveFile=$CDS_ARCHIVE -Xshare:auto"
+    fi
+    exec "$JAVA" $CDS_OPTS -Dspring.aot.enabled=true $JAVA_OPTS -jar "$APP_JAR" "$@"
+    ;;
+esac
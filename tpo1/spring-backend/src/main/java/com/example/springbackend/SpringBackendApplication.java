@@ -2,10 +2,22 @@ package com.example.springbackend;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
-@SpringBootApplication
+// R2DBC only serves the reactive read path, which builds its own pool (ReactiveCatalogService): a
+// ConnectionFactory bean would make Boot skip the JDBC DataSource (even an embedded H2 one when no URL is
+// set), and its ReactiveTransactionManager the JPA transaction manager
+@SpringBootApplication(exclude = { R2dbcAutoConfiguration.class, R2dbcTransactionManagerAutoConfiguration.class })
 public class SpringBackendApplication {
+
+    // startup steps kept for StartupReport (bean instantiations, context refresh); drained once reported
+    private static final int STARTUP_STEPS = 8192;
+
     public static void main(String[] args) {
-        SpringApplication.run(SpringBackendApplication.class, args);
+        SpringApplication application = new SpringApplication(SpringBackendApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS));
+        application.run(args);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,109 @@
+package com.example.springbackend.config;
+
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+
+/**
+ * AOT build check (fast-start and native builds)
+ * Spring AOT evaluates @Profile and @ConditionalOnProperty while building: the generated bean definitions
+ * only contain the beans that matched then, whatever the runtime profiles or properties say later.
+ * - at build time (process-aot, registered in META-INF/spring/aot.factories) the active profiles and the
+ *   properties behind our bean conditions are written to META-INF/spring/aot-build.properties;
+ * - at startup with the generated artifacts (registered in META-INF/spring.factories) the same values are
+ *   compared with the runtime environment, and a difference stops the application before any bean exists,
+ *   instead of silently running without (or with) the beans that condition selects.
+ * Build with the runtime profile instead (SPRING_PROFILES_ACTIVE=perf mvn -Pfast-start verify).
+ */
+public class AotBuildCheck implements BeanFactoryInitializationAotProcessor, EnvironmentPostProcessor, Ordered {
+
+    static final String RESOURCE = "META-INF/spring/aot-build.properties";
+    static final String PROFILES = "spring.profiles.active";
+
+    // properties read by @ConditionalOnProperty in this application (and the Flyway auto-configuration)
+    static final List<String> CONDITION_PROPERTIES = List.of(
+            "catalog.categories.migrate-on-startup",
+            "catalog.query-plans.verify",
+            "images.migrate-on-startup",
+            "perf.generator.enabled",
+            "spring.threads.virtual.enabled",
+            "datasource.limiter.enabled",
+            "threads.pinning.monitor",
+            "spring.flyway.enabled");
+
+    @Override
+    public BeanFactoryInitializationAotContribution processAheadOfTime(ConfigurableListableBeanFactory beanFactory) {
+        Environment environment = beanFactory.getBean(Environment.class);
+        Properties build = snapshot(environment);
+        return (generationContext, code) -> {
+            StringWriter content = new StringWriter();
+            try {
+                build.store(content, "Profiles and condition properties at AOT processing time (AotBuildCheck)");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            generationContext.getGeneratedFiles().addResourceFile(RESOURCE, content.toString());
+        };
+    }
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (!AotDetector.useGeneratedArtifacts()) return;
+        ClassPathResource resource = new ClassPathResource(RESOURCE);
+        if (!resource.exists()) return;
+        Properties build = new Properties();
+        try (InputStream in = resource.getInputStream()) {
+            build.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        Properties runtime = snapshot(environment);
+        List<String> differences = new ArrayList<>();
+        for (String key : build.stringPropertyNames()) {
+            if (!Objects.equals(build.getProperty(key), runtime.getProperty(key))) {
+                differences.add(key + ": built with '" + build.getProperty(key) + "', running with '"
+                        + runtime.getProperty(key) + "'");
+            }
+        }
+        if (!differences.isEmpty()) {
+            throw new IllegalStateException("This build was AOT-processed with other profiles or bean conditions "
+                    + "than the current ones (" + String.join("; ", differences) + "). Rebuild with the runtime "
+                    + "values, e.g. SPRING_PROFILES_ACTIVE=perf mvn -Pfast-start verify, or start without "
+                    + "-Dspring.aot.enabled=true");
+        }
+    }
+
+    /**
+     * Runs after the config data (application-{profile}.properties) is loaded, so profiles are final
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+
+    private static Properties snapshot(Environment environment) {
+        Properties values = new Properties();
+        values.setProperty(PROFILES, String.join(",", environment.getActiveProfiles()));
+        for (String key : CONDITION_PROPERTIES) {
+            values.setProperty(key, environment.getProperty(key, ""));
+        }
+        return values;
+    }
+}
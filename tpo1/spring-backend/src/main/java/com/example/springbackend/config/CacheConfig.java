@@ -0,0 +1,63 @@
+package com.example.springbackend.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Cache configuration.
+ * Bounded in-process caches (Caffeine) in front of the catalog read methods of
+ * ProductService and CategoryService. Entries expire after a TTL and are evicted by size;
+ * writes evict the affected keys through CatalogCacheInvalidator.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PRODUCT_BY_ID = "productById";
+    public static final String PRODUCTS_BY_CATEGORY = "productsByCategory";
+    public static final String CATEGORIES = "categories";
+    public static final String CATEGORY_BY_ID = "categoryById";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${catalog.cache.ttl:10m}") Duration ttl,
+            @Value("${catalog.cache.product-max-size:10000}") long productMaxSize,
+            @Value("${catalog.cache.category-list-max-products:50000}") long categoryListMaxProducts,
+            @Value("${catalog.cache.category-max-size:1000}") long categoryMaxSize) {
+        CaffeineCacheManager manager = new CaffeineCacheManager();
+        // no dynamic caches: only the ones registered below exist
+        manager.setCacheNames(List.of());
+        manager.registerCustomCache(PRODUCT_BY_ID, Caffeine.newBuilder()
+                .maximumSize(productMaxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build());
+        // category listings are weighed by the number of products they hold
+        manager.registerCustomCache(PRODUCTS_BY_CATEGORY, Caffeine.newBuilder()
+                .maximumWeight(categoryListMaxProducts)
+                .weigher((Object key, Object value) -> value instanceof Collection<?> list ? Math.max(1, list.size()) : 1)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build());
+        manager.registerCustomCache(CATEGORIES, Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build());
+        manager.registerCustomCache(CATEGORY_BY_ID, Caffeine.newBuilder()
+                .maximumSize(categoryMaxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build());
+        return manager;
+    }
+}
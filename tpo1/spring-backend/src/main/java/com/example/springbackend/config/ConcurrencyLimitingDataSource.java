@@ -0,0 +1,206 @@
+package com.example.springbackend.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DataSource wrapper that bounds how many connections are checked out at once.
+ * With virtual threads (see VirtualThreadsConfig, java21 build) requests are no longer capped by the
+ * Tomcat pool, so thousands of them can ask the connection pool for a connection at the same time.
+ * A fair semaphore with a few permits less than the pool has connections queues them in arrival order and
+ * parks the waiters cheaply; only permit holders reach the pool. The permit is released when the
+ * connection is closed (returned to the pool), once per connection.
+ * A thread that already holds a permit (REQUIRES_NEW, a JdbcTemplate call next to a TransactionTemplate, ...)
+ * gets its next connections without one: they come from the connections left above the permits, so a request
+ * never waits for a permit that only it could release. unwrap/isWrapperFor reach the pool behind it.
+ * Streams and exports keep their connection for the whole transfer, as slow as the client reads: inside
+ * streaming(...) a connection takes one of the few stream permits instead, so slow downloads queue among
+ * themselves and never use up the permits of the other requests.
+ */
+public class ConcurrencyLimitingDataSource extends DelegatingDataSource {
+
+    // set by streaming(...) on the thread that opens the cursor
+    private static final ThreadLocal<Boolean> STREAMING = ThreadLocal.withInitial(() -> false);
+
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final Semaphore streamPermits;
+    private final int streamMaxConcurrent;
+    private final long acquireTimeoutMs;
+    // permits held by the current thread (connections opened while holding one skip the queue)
+    private final ThreadLocal<AtomicInteger> held = ThreadLocal.withInitial(AtomicInteger::new);
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicInteger nested = new AtomicInteger();
+
+    public ConcurrencyLimitingDataSource(DataSource target, int maxConcurrent, int streamMaxConcurrent,
+            Duration acquireTimeout) {
+        super(target);
+        if (maxConcurrent < 1) throw new IllegalArgumentException("maxConcurrent must be at least 1");
+        if (streamMaxConcurrent < 1) throw new IllegalArgumentException("streamMaxConcurrent must be at least 1");
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxConcurrent = maxConcurrent;
+        this.streamPermits = new Semaphore(streamMaxConcurrent, true);
+        this.streamMaxConcurrent = streamMaxConcurrent;
+        this.acquireTimeoutMs = acquireTimeout.toMillis();
+    }
+
+    /**
+     * Runs a long transfer (cursor read at the client's pace): the connections it opens take a stream permit
+     */
+    public static void streaming(Runnable transfer) {
+        boolean outer = STREAMING.get();
+        STREAMING.set(true);
+        try {
+            transfer.run();
+        } finally {
+            if (!outer) STREAMING.remove();
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        AtomicInteger holder = held.get();
+        if (holder.get() > 0) return nested(obtainTargetDataSource().getConnection());
+        Semaphore semaphore = acquire();
+        try {
+            return limited(obtainTargetDataSource().getConnection(), holder, semaphore);
+        } catch (SQLException | RuntimeException e) {
+            semaphore.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        AtomicInteger holder = held.get();
+        if (holder.get() > 0) return nested(obtainTargetDataSource().getConnection(username, password));
+        Semaphore semaphore = acquire();
+        try {
+            return limited(obtainTargetDataSource().getConnection(username, password), holder, semaphore);
+        } catch (SQLException | RuntimeException e) {
+            semaphore.release();
+            throw e;
+        }
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    /**
+     * Connections checked out right now
+     */
+    public int getActive() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    /**
+     * Threads waiting for a permit (estimate, see Semaphore.getQueueLength)
+     */
+    public int getWaiting() {
+        return permits.getQueueLength();
+    }
+
+    public int getStreamMaxConcurrent() {
+        return streamMaxConcurrent;
+    }
+
+    /**
+     * Stream / export connections checked out right now
+     */
+    public int getStreamActive() {
+        return streamMaxConcurrent - streamPermits.availablePermits();
+    }
+
+    /**
+     * Streams and exports waiting for a stream permit (estimate)
+     */
+    public int getStreamWaiting() {
+        return streamPermits.getQueueLength();
+    }
+
+    /**
+     * Connections opened by permit holders without a permit, right now
+     */
+    public int getNested() {
+        return nested.get();
+    }
+
+    /**
+     * Requests that gave up after acquireTimeout, since startup
+     */
+    public long getTimeouts() {
+        return timeouts.get();
+    }
+
+    private Semaphore acquire() throws SQLException {
+        boolean streaming = STREAMING.get();
+        Semaphore semaphore = streaming ? streamPermits : permits;
+        try {
+            if (!semaphore.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new SQLTransientConnectionException("No database connection available within "
+                        + acquireTimeoutMs + " ms (" + (streaming ? streamMaxConcurrent + " streams" : maxConcurrent)
+                        + " in use, " + semaphore.getQueueLength() + " waiting)");
+            }
+            return semaphore;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", e);
+        }
+    }
+
+    private Connection limited(Connection connection, AtomicInteger holder, Semaphore semaphore) {
+        holder.incrementAndGet();
+        return onFirstClose(connection, () -> {
+            holder.decrementAndGet();
+            semaphore.release();
+        });
+    }
+
+    private Connection nested(Connection connection) {
+        nested.incrementAndGet();
+        return onFirstClose(connection, nested::decrementAndGet);
+    }
+
+    /**
+     * Proxy that runs the release on the first close(); every other call goes to the pooled connection
+     */
+    private static Connection onFirstClose(Connection connection, Runnable release) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(ConcurrencyLimitingDataSource.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "close":
+                            try {
+                                connection.close();
+                            } finally {
+                                if (released.compareAndSet(false, true)) release.run();
+                            }
+                            return null;
+                        default:
+                            try {
+                                return method.invoke(connection, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getTargetException();
+                            }
+                    }
+                });
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.springbackend.config;
+
+import com.example.springbackend.service.ImageStorageService;
+import db.migration.V4__Upgrade_baseline_schema;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Java migrations that need Spring beans. The Flyway auto-configuration adds every JavaMigration bean to the
+ * migrations found in spring.flyway.locations (the classpath scan only instantiates default constructors).
+ */
+@Configuration
+public class FlywayConfig {
+
+    @Bean
+    public JavaMigration upgradeBaselineSchema(ImageStorageService imageStorageService) {
+        return new V4__Upgrade_baseline_schema(imageStorageService);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.springbackend.config;
+
+import com.example.springbackend.dto.AuthResponseDTO;
+import com.example.springbackend.dto.BulkImportResultDTO;
+import com.example.springbackend.dto.CategoryDTO;
+import com.example.springbackend.dto.CheckoutFailureDTO;
+import com.example.springbackend.dto.CheckoutRequestDTO;
+import com.example.springbackend.dto.CheckoutResultDTO;
+import com.example.springbackend.dto.CursorPageDTO;
+import com.example.springbackend.dto.FacetResultDTO;
+import com.example.springbackend.dto.HotInventoryDTO;
+import com.example.springbackend.dto.LoginRequestDTO;
+import com.example.springbackend.dto.OrderDTO;
+import com.example.springbackend.dto.OrderItemDTO;
+import com.example.springbackend.dto.ProductDTO;
+import com.example.springbackend.dto.RegisterRequestDTO;
+import com.example.springbackend.dto.StockPatchDTO;
+import com.example.springbackend.model.Category;
+import com.example.springbackend.model.Usuario;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.sql.Connection;
+import java.util.List;
+
+/**
+ * Reachability metadata for the native image (mvn -Pnative, see README).
+ * Spring AOT already infers the entities and the @RequestBody / return types of the controllers;
+ * this adds what it cannot see:
+ * - DTOs (de)serialized outside a controller signature (ResponseEntity bodies, bulk import, streaming);
+ * - Usuario and Category, bound as Jackson/Lombok beans outside their repositories;
+ * - JJWT, which loads its implementation (builder, parser, Jackson serializer) by class name at runtime;
+ * - the Connection proxy of ConcurrencyLimitingDataSource.
+ * BCryptPasswordEncoder is plain code and needs nothing.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHints.Registrar.class)
+@RegisterReflectionForBinding({
+        AuthResponseDTO.class, BulkImportResultDTO.class, CategoryDTO.class, CheckoutFailureDTO.class,
+        CheckoutRequestDTO.class, CheckoutRequestDTO.Item.class, CheckoutResultDTO.class, CursorPageDTO.class,
+        FacetResultDTO.class, HotInventoryDTO.class, LoginRequestDTO.class, OrderDTO.class, OrderItemDTO.class,
+        ProductDTO.class, RegisterRequestDTO.class, StockPatchDTO.class, Usuario.class, Category.class })
+public class NativeHints {
+
+    private static final List<String> JJWT_CLASSES = List.of(
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParser",
+            "io.jsonwebtoken.impl.DefaultClaims",
+            "io.jsonwebtoken.impl.DefaultHeader",
+            "io.jsonwebtoken.impl.DefaultJwsHeader",
+            "io.jsonwebtoken.impl.compression.DefaultCompressionCodecResolver",
+            "io.jsonwebtoken.impl.crypto.MacProvider",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+    static class Registrar implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // jjwt-impl / jjwt-jackson are runtime-only dependencies: register them by name
+            JJWT_CLASSES.forEach(name -> hints.reflection().registerTypeIfPresent(classLoader, name,
+                    type -> type.withMembers(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                            MemberCategory.INVOKE_DECLARED_METHODS, MemberCategory.DECLARED_FIELDS)));
+            hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+            // Flyway migrations are read from the classpath at startup
+            hints.resources().registerPattern("db/migration/*.sql");
+            // connections handed out by ConcurrencyLimitingDataSource
+            hints.proxies().registerJdkProxy(Connection.class);
+            // AotBuildCheck: created from META-INF/spring.factories, reads what process-aot recorded
+            hints.reflection().registerType(AotBuildCheck.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.resources().registerPattern(AotBuildCheck.RESOURCE);
+        }
+    }
+}
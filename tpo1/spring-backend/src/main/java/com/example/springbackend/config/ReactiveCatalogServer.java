@@ -0,0 +1,106 @@
+package com.example.springbackend.config;
+
+import com.example.springbackend.controller.ReactiveCatalogHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.cors.CorsConfigurationSource;
+import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import org.springframework.web.cors.reactive.CorsWebFilter;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.server.adapter.WebHttpHandlerBuilder;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Reactive read path: a Reactor Netty server on catalog.reactive.port (3001 by default) next to Tomcat,
+ * serving ReactiveCatalogHandler (anonymous catalog reads over R2DBC). A few event-loop threads handle
+ * every connection, so slow clients cost a socket and a buffer, not a thread.
+ * Writes, auth and everything else stay on the MVC application (server.port).
+ * - JSON is written with the application ObjectMapper (same date and null handling as the MVC responses);
+ * - CORS uses the same configuration as SecurityConfig (the MVC introspector is also a CorsConfigurationSource,
+ *   hence the qualifier);
+ * - catalog.reactive.enabled=false does not start it; port 0 picks a free one.
+ */
+@Component
+public class ReactiveCatalogServer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveCatalogServer.class);
+
+    private final ReactiveCatalogHandler handler;
+    private final ObjectMapper objectMapper;
+    private final CorsConfigurationSource corsConfigurationSource;
+    private final boolean enabled;
+    private final int port;
+    private volatile DisposableServer server;
+
+    public ReactiveCatalogServer(ReactiveCatalogHandler handler, ObjectMapper objectMapper,
+            @Qualifier("corsConfigurationSource") CorsConfigurationSource corsConfigurationSource,
+            @Value("${catalog.reactive.enabled:true}") boolean enabled,
+            @Value("${catalog.reactive.port:3001}") int port) {
+        this.handler = handler;
+        this.objectMapper = objectMapper;
+        this.corsConfigurationSource = corsConfigurationSource;
+        this.enabled = enabled;
+        this.port = port;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) return;
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+        HttpHandler httpHandler = WebHttpHandlerBuilder
+                .webHandler(RouterFunctions.toWebHandler(handler.routes(), strategies))
+                .filter(new CorsWebFilter(reactiveCors()))
+                .build();
+        server = HttpServer.create()
+                .port(port)
+                .handle(new ReactorHttpHandlerAdapter(httpHandler))
+                .bindNow();
+        log.info("Reactive catalog read path listening on port {}", server.port());
+    }
+
+    @Override
+    public void stop() {
+        DisposableServer current = server;
+        if (current == null) return;
+        server = null;
+        current.disposeNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    /**
+     * Actual port (useful with catalog.reactive.port=0), or -1 when not running
+     */
+    public int getPort() {
+        DisposableServer current = server;
+        return current != null ? current.port() : -1;
+    }
+
+    // same origins / headers as the servlet CORS configuration (SecurityConfig.corsConfigurationSource)
+    private org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource reactiveCors() {
+        var source = new org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource();
+        if (corsConfigurationSource instanceof UrlBasedCorsConfigurationSource servlet) {
+            servlet.getCorsConfigurations().forEach(source::registerCorsConfiguration);
+        }
+        return source;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.springbackend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (e.g. InventoryEngine write-behind flush).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
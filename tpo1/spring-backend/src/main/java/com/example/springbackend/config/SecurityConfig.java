@@ -15,6 +15,8 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -88,14 +90,21 @@ public class SecurityConfig {
                         
                         // GET /products/my-products should require authentication (user-specific)
                         .requestMatchers(HttpMethod.GET, "/products/my-products").authenticated()
+                        // Full-table exports require a logged in user
+                        .requestMatchers(HttpMethod.GET, "/products/export", "/orders/export").authenticated()
+                        // ?stream=true holds a database connection for the whole transfer
+                        .requestMatchers(streamRequest("/products"), streamRequest("/orders")).authenticated()
                         // Public routes - other GET operations (anyone can view)
                         .requestMatchers(HttpMethod.GET, "/products/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/categories/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/images/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/orders/**").permitAll()
                         
                         // POST Products - Require authentication
                         .requestMatchers(HttpMethod.POST, "/products").authenticated()
+                        .requestMatchers(HttpMethod.POST, "/products/bulk").authenticated()
                         .requestMatchers(HttpMethod.PUT, "/products/**").authenticated()
+                        .requestMatchers(HttpMethod.PATCH, "/products/**").authenticated()
                         // Allow authenticated users to call DELETE on products; ownership/admin check is enforced in controller/service
                         .requestMatchers(HttpMethod.DELETE, "/products/**").authenticated()
                         
@@ -106,10 +115,13 @@ public class SecurityConfig {
                         
                         // Orders - Require authentication
                         .requestMatchers(HttpMethod.POST, "/orders").authenticated()
+                        .requestMatchers(HttpMethod.POST, "/orders/checkout").authenticated()
                         .requestMatchers(HttpMethod.PUT, "/orders/**").authenticated()
                         .requestMatchers(HttpMethod.DELETE, "/orders/**").hasAnyRole("ADMIN", "USER")
                         
                         // Admin specific routes
+                        // promote/demote moves a product's stock to write-behind memory: admins only
+                        .requestMatchers("/api/admin/inventory/**").hasRole("ADMIN")
                         .requestMatchers("/api/admin/**").hasAnyRole("ADMIN", "USER")
                         
                         // Any other route requires authentication by default
@@ -127,6 +139,14 @@ public class SecurityConfig {
         return new JwtFilter(jwtUtil, userDetailsService);
     }
 
+    /**
+    * GET on the given path with stream=true (the route params of the controller's stream() methods).
+    */
+    private static RequestMatcher streamRequest(String path) {
+        RequestMatcher get = new AntPathRequestMatcher(path, HttpMethod.GET.name());
+        return request -> get.matches(request) && "true".equals(request.getParameter("stream"));
+    }
+
     // esto va a permitir las configuraciones de CORS en toda la aplicacion de Spring
     @Bean
     CorsConfigurationSource corsConfigurationSource() {
@@ -135,9 +155,11 @@ public class SecurityConfig {
         // Defino los origenes permitidos
         configuration.setAllowedOrigins(Arrays.asList("http://localhost:5173", "http://127.0.0.1:5173"));
         // Defino los metodos http permitidos
-        configuration.setAllowedMethods(Arrays.asList("GET","POST","PUT","DELETE","OPTIONS"));
+        configuration.setAllowedMethods(Arrays.asList("GET","POST","PUT","PATCH","DELETE","OPTIONS"));
         // Defino los headers permitidos
-        configuration.setAllowedHeaders(Arrays.asList("Content-Type", "Authorization"));
+        configuration.setAllowedHeaders(Arrays.asList("Content-Type", "Authorization", "If-Match"));
+        // Headers de respuesta que el frontend puede leer (paginacion por cursor, ETag)
+        configuration.setExposedHeaders(Arrays.asList("X-Next-Cursor", "X-Total-Count", "ETag"));
         // Permito el envio de credenciales (cookies, headers de autorizacion, etc.)
         configuration.setAllowCredentials(true);
 
@@ -0,0 +1,108 @@
+package com.example.springbackend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Startup Report
+ * Once the application is ready, lists the slowest bean initializations recorded by the
+ * BufferingApplicationStartup set in SpringBackendApplication. "self" excludes the time spent creating
+ * the bean's dependencies (nested instantiation steps), so the hot spots are not hidden behind
+ * whichever bean happened to need them first. Logged at INFO and, with startup.report.file, written to
+ * that file (the fast-start build keeps it next to the CDS archive). The buffer is drained afterwards.
+ */
+@Component
+public class StartupReport {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupReport.class);
+
+    private static final String BEAN_STEP = "spring.beans.instantiate";
+    private static final String REFRESH_STEP = "spring.context.refresh";
+
+    private final int top;
+    private final String file;
+
+    public StartupReport(@Value("${startup.report.top:20}") int top,
+            @Value("${startup.report.file:}") String file) {
+        this.top = top;
+        this.file = file;
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE - 1) // before StartupTraining, which exits the application
+    @EventListener(ApplicationReadyEvent.class)
+    public void report(ApplicationReadyEvent event) {
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        ApplicationStartup startup = event.getApplicationContext().getApplicationStartup();
+        if (!(startup instanceof BufferingApplicationStartup buffering)) {
+            log.info("Ready after {} ms of JVM uptime (no startup steps recorded)", uptime);
+            return;
+        }
+        String report = format(buffering.drainBufferedTimeline().getEvents(), uptime);
+        log.info("\n{}", report);
+        if (!file.isBlank()) {
+            try {
+                Files.writeString(Path.of(file), report);
+            } catch (IOException e) {
+                log.warn("Could not write the startup report to {}", file, e);
+            }
+        }
+    }
+
+    private String format(List<StartupTimeline.TimelineEvent> events, long uptime) {
+        Map<Long, Long> childrenNanos = new HashMap<>();
+        long refreshMs = -1;
+        for (StartupTimeline.TimelineEvent e : events) {
+            StartupStep step = e.getStartupStep();
+            if (step.getParentId() != null && BEAN_STEP.equals(step.getName())) {
+                childrenNanos.merge(step.getParentId(), e.getDuration().toNanos(), Long::sum);
+            }
+            if (REFRESH_STEP.equals(step.getName())) refreshMs = e.getDuration().toMillis();
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "Startup report: ready after %d ms of JVM uptime, context refresh %d ms%n",
+                uptime, refreshMs));
+        sb.append(String.format(Locale.ROOT, "Slowest bean initializations (top %d):%n", top));
+        sb.append(String.format(Locale.ROOT, "%9s %9s  %s%n", "self ms", "total ms", "bean"));
+        events.stream()
+                .filter(e -> BEAN_STEP.equals(e.getStartupStep().getName()))
+                .map(e -> new BeanTime(beanName(e.getStartupStep()), e.getDuration(),
+                        e.getDuration().minusNanos(childrenNanos.getOrDefault(e.getStartupStep().getId(), 0L))))
+                .sorted(Comparator.comparing(BeanTime::self).reversed())
+                .limit(top)
+                .forEach(b -> sb.append(String.format(Locale.ROOT, "%9.1f %9.1f  %s%n",
+                        b.self().toNanos() / 1e6, b.total().toNanos() / 1e6, b.name())));
+        return sb.toString();
+    }
+
+    private static String beanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if ("beanName".equals(tag.getKey())) return tag.getValue();
+        }
+        return "?";
+    }
+
+    private record BeanTime(String name, Duration total, Duration self) {
+    }
+}
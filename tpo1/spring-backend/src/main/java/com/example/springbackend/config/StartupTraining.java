@@ -0,0 +1,200 @@
+package com.example.springbackend.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Startup Training Run (startup.training.enabled=true, see fast-start.sh)
+ * Once ready, sends the application a short scenario through its own HTTP API (catalog reads, also on
+ * the reactive read path, register + login, create a product, checkout and read the orders) so the
+ * classes of the request path are loaded too, measures the time to the first response and exits:
+ * - with -XX:ArchiveClassesAtExit it produces the AppCDS archive;
+ * - with startup.time-to-first-request.max-ms it checks the startup target (exit status 1 when exceeded);
+ * - with startup.training.fail-on-error every request must answer 2xx, which makes it the smoke test
+ *   of builds that cannot run the JVM tooling (the native executable).
+ * Also logs the peak resident set size on Linux, to compare the JVM and native builds.
+ */
+@Component
+public class StartupTraining {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTraining.class);
+
+    private static final List<String> CATALOG_GETS = List.of(
+            "/categories",
+            "/categories/1",
+            "/products",
+            "/products?limit=20",
+            "/products/1",
+            "/products?category=Ropa&sort=price&limit=20",
+            "/products/search?q=auriculares",
+            "/products/facets?category=Ropa");
+    private static final List<String> REACTIVE_GETS = List.of(
+            "/categories",
+            "/categories/1",
+            "/products?limit=20",
+            "/products/1",
+            "/products?category=Ropa");
+    private static final String EMAIL = "training@example.com";
+    private static final String PASSWORD = "training123";
+
+    private final ObjectMapper objectMapper;
+    private final ReactiveCatalogServer reactiveCatalogServer;
+    private final boolean enabled;
+    private final boolean failOnError;
+    private final long maxTimeToFirstRequestMs;
+
+    private final List<String> failures = new ArrayList<>();
+
+    public StartupTraining(ObjectMapper objectMapper, ReactiveCatalogServer reactiveCatalogServer,
+            @Value("${startup.training.enabled:false}") boolean enabled,
+            @Value("${startup.training.fail-on-error:false}") boolean failOnError,
+            @Value("${startup.time-to-first-request.max-ms:0}") long maxTimeToFirstRequestMs) {
+        this.objectMapper = objectMapper;
+        this.reactiveCatalogServer = reactiveCatalogServer;
+        this.enabled = enabled;
+        this.failOnError = failOnError;
+        this.maxTimeToFirstRequestMs = maxTimeToFirstRequestMs;
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void trainAndExit(ApplicationReadyEvent event) {
+        if (!enabled) return;
+        ConfigurableApplicationContext context = event.getApplicationContext();
+        URI base = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+        long firstResponseMs = -1;
+        int exitCode = 0;
+        try {
+            for (String path : CATALOG_GETS) {
+                send(client, HttpRequest.newBuilder(base.resolve(path)).GET().build());
+                if (firstResponseMs < 0) firstResponseMs = ManagementFactory.getRuntimeMXBean().getUptime();
+            }
+            reactiveReads(client);
+            shopperScenario(client, base);
+        } catch (IOException e) {
+            log.error("Training request failed", e);
+            exitCode = 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exitCode = 1;
+        }
+
+        if (firstResponseMs >= 0) {
+            log.info("Time to first request: {} ms of JVM uptime (target {})", firstResponseMs,
+                    maxTimeToFirstRequestMs > 0 ? maxTimeToFirstRequestMs + " ms" : "none");
+            if (maxTimeToFirstRequestMs > 0 && firstResponseMs > maxTimeToFirstRequestMs) {
+                log.error("Time to first request {} ms exceeds the target of {} ms", firstResponseMs,
+                        maxTimeToFirstRequestMs);
+                exitCode = 1;
+            }
+        }
+        if (failOnError && !failures.isEmpty()) {
+            log.error("Training requests without a 2xx answer: {}", failures);
+            exitCode = 1;
+        }
+        logPeakRss();
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+
+    /**
+     * Same catalog reads on the reactive read path (JSON array and NDJSON), when it is running
+     */
+    private void reactiveReads(HttpClient client) throws IOException, InterruptedException {
+        int port = reactiveCatalogServer.getPort();
+        if (port < 0) return;
+        URI base = URI.create("http://localhost:" + port);
+        for (String path : REACTIVE_GETS) {
+            send(client, HttpRequest.newBuilder(base.resolve(path)).GET().build());
+        }
+        send(client, HttpRequest.newBuilder(base.resolve("/products?limit=20"))
+                .header("Accept", "application/x-ndjson").GET().build());
+    }
+
+    /**
+     * register (or login when the user exists) -> create a product -> checkout -> list and read orders
+     */
+    private void shopperScenario(HttpClient client, URI base) throws IOException, InterruptedException {
+        send(client, post(base.resolve("/api/auth/register"), Map.of(
+                "nombre", "Training", "apellido", "Run", "email", EMAIL, "password", PASSWORD), null));
+        JsonNode auth = send(client, post(base.resolve("/api/auth/login"),
+                Map.of("email", EMAIL, "password", PASSWORD), null));
+        if (auth == null || !auth.hasNonNull("token")) return;
+        String token = auth.get("token").asText();
+
+        JsonNode product = send(client, post(base.resolve("/products"), Map.of(
+                "name", "Producto de entrenamiento", "price", 1000, "category", "Ropa",
+                "description", "Creado por el training run", "stock", 5, "userId", auth.path("id").asLong()), token));
+        if (product == null || !product.hasNonNull("id")) return;
+
+        JsonNode checkout = send(client, post(base.resolve("/orders/checkout"),
+                Map.of("items", List.of(Map.of("productId", product.get("id").asLong(), "quantity", 1))), token));
+        send(client, HttpRequest.newBuilder(base.resolve("/orders")).GET().build());
+        if (checkout != null && checkout.path("order").hasNonNull("id")) {
+            send(client, HttpRequest.newBuilder(base.resolve("/orders/" + checkout.path("order").get("id").asLong()))
+                    .GET().build());
+        }
+    }
+
+    private HttpRequest post(URI uri, Object body, String token) throws IOException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+        if (token != null) request.header("Authorization", "Bearer " + token);
+        return request.build();
+    }
+
+    /**
+     * Sends the request and returns its JSON body (null when it is not 2xx or not JSON)
+     */
+    private JsonNode send(HttpClient client, HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        log.debug("{} {} -> {}", request.method(), request.uri(), response.statusCode());
+        if (response.statusCode() / 100 != 2) {
+            failures.add(request.method() + " " + request.uri().getPath() + " -> " + response.statusCode());
+            return null;
+        }
+        try {
+            return objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static void logPeakRss() {
+        Path status = Path.of("/proc/self/status");
+        if (!Files.isReadable(status)) return;
+        try {
+            Files.readAllLines(status).stream()
+                    .filter(line -> line.startsWith("VmHWM:") || line.startsWith("VmRSS:"))
+                    .forEach(line -> log.info("Memory {}", line.replaceAll("\\s+", " ")));
+        } catch (IOException e) {
+            log.debug("Could not read {}", status, e);
+        }
+    }
+}
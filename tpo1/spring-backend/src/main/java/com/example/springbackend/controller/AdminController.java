@@ -0,0 +1,126 @@
+package com.example.springbackend.controller;
+
+import com.example.springbackend.config.ConcurrencyLimitingDataSource;
+import com.example.springbackend.dto.HotInventoryDTO;
+import com.example.springbackend.service.InventoryEngine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    private final CacheManager cacheManager;
+    private final InventoryEngine inventoryEngine;
+    private final DataSource dataSource;
+
+    public AdminController(CacheManager cacheManager, InventoryEngine inventoryEngine, DataSource dataSource) {
+        this.cacheManager = cacheManager;
+        this.inventoryEngine = inventoryEngine;
+        this.dataSource = dataSource;
+    }
+
+    @GetMapping("/cache-stats")
+    /**
+     * GET /api/admin/cache-stats
+     * Hit/miss/eviction statistics of every catalog cache, to size them.
+     * Example:
+     * curl -s "http://localhost:3000/api/admin/cache-stats" -H "Authorization: Bearer <token>" | jq .
+     */
+    public Map<String, Map<String, Object>> cacheStats() {
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (!(cache instanceof CaffeineCache caffeine)) continue;
+            CacheStats stats = caffeine.getNativeCache().stats();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("size", caffeine.getNativeCache().estimatedSize());
+            entry.put("hits", stats.hitCount());
+            entry.put("misses", stats.missCount());
+            entry.put("hitRate", stats.hitRate());
+            entry.put("evictions", stats.evictionCount());
+            entry.put("evictionWeight", stats.evictionWeight());
+            result.put(name, entry);
+        }
+        return result;
+    }
+
+    @GetMapping("/datasource-stats")
+    /**
+     * GET /api/admin/datasource-stats
+     * Connection pool usage and, on virtual threads, the ConcurrencyLimitingDataSource queue in front of it.
+     * Example:
+     * curl -s "http://localhost:3000/api/admin/datasource-stats" -H "Authorization: Bearer <token>" | jq .
+     */
+    public Map<String, Object> dataSourceStats() throws SQLException {
+        Map<String, Object> result = new LinkedHashMap<>();
+        if (dataSource.isWrapperFor(HikariDataSource.class)) {
+            HikariPoolMXBean pool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+            if (pool != null) {
+                result.put("poolActive", pool.getActiveConnections());
+                result.put("poolIdle", pool.getIdleConnections());
+                result.put("poolTotal", pool.getTotalConnections());
+                result.put("poolWaiting", pool.getThreadsAwaitingConnection());
+            }
+        }
+        if (dataSource.isWrapperFor(ConcurrencyLimitingDataSource.class)) {
+            ConcurrencyLimitingDataSource limiter = dataSource.unwrap(ConcurrencyLimitingDataSource.class);
+            result.put("limiterPermits", limiter.getMaxConcurrent());
+            result.put("limiterActive", limiter.getActive());
+            result.put("limiterWaiting", limiter.getWaiting());
+            result.put("limiterNested", limiter.getNested());
+            result.put("limiterTimeouts", limiter.getTimeouts());
+            result.put("limiterStreamMaxConcurrent", limiter.getStreamMaxConcurrent());
+            result.put("limiterStreamActive", limiter.getStreamActive());
+            result.put("limiterStreamWaiting", limiter.getStreamWaiting());
+        }
+        return result;
+    }
+
+    @GetMapping("/inventory")
+    /**
+     * GET /api/admin/inventory
+     * Memory-backed products with their available, reserved and not yet flushed units.
+     */
+    public List<HotInventoryDTO> hotInventory() {
+        return inventoryEngine.snapshot();
+    }
+
+    @PostMapping("/inventory/{productId}/promote")
+    /**
+     * POST /api/admin/inventory/{productId}/promote
+     * Moves the product's stock to in-memory striped counters (for promotions with many concurrent buyers).
+     * Single-node deployments only: 409 unless inventory.single-instance=true, since every instance would
+     * hold (and sell) the full stock.
+     * Example:
+     * curl -s -X POST "http://localhost:3000/api/admin/inventory/1/promote" -H "Authorization: Bearer <token>"
+     */
+    public HotInventoryDTO promote(@PathVariable Long productId) {
+        return inventoryEngine.promote(productId);
+    }
+
+    @PostMapping("/inventory/{productId}/demote")
+    /**
+     * POST /api/admin/inventory/{productId}/demote
+     * Writes the remaining stock back to the products table and returns the product to DB-backed mode.
+     * 409 if reservations are still in progress after inventory.demote-timeout-ms.
+     */
+    public Map<String, Object> demote(@PathVariable Long productId) {
+        return Map.of("productId", productId, "stock", inventoryEngine.demote(productId));
+    }
+}
@@ -1,10 +1,12 @@
 package com.example.springbackend.controller;
 
+import com.example.springbackend.service.CatalogVersions;
 import com.example.springbackend.service.CategoryService;
 import com.example.springbackend.dto.CategoryDTO;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -13,20 +15,26 @@ import java.util.List;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final CatalogVersions catalogVersions;
 
-    public CategoryController(CategoryService categoryService) {
+    public CategoryController(CategoryService categoryService, CatalogVersions catalogVersions) {
         this.categoryService = categoryService;
+        this.catalogVersions = catalogVersions;
     }
 
     @GetMapping
     /**
      * GET /categories
      * Returns a list of all categories.
+     * Supports If-None-Match: 304 Not Modified (no database access) while no category changed.
      * Example:
      * curl -s "http://localhost:3000/categories" | jq .
      */
-    public List<CategoryDTO> all() {
-        return categoryService.findAll();
+    public List<CategoryDTO> all(WebRequest request) {
+        if (ConditionalRequests.notModified(request, catalogVersions.categoriesEtag())) {
+            return null;
+        }
+        return categoryService.findAll().stream().map(CategoryController::copyOf).toList();
     }
 
     @GetMapping("/{id}")
@@ -36,23 +44,29 @@ public class CategoryController {
      * Responses:
      * - 200 OK with the category JSON when found
      * - 404 Not Found when no category exists with that id
+     * - 304 Not Modified when If-None-Match matches (answered without database access)
      * Example:
      * curl -i "http://localhost:3000/categories/1"
      */
-    public ResponseEntity<CategoryDTO> getById(@PathVariable Long id) {
-        return categoryService.findById(id);
+    public ResponseEntity<CategoryDTO> getById(@PathVariable Long id, WebRequest request) {
+        if (ConditionalRequests.notModified(request, catalogVersions.categoryEtag(id))) {
+            return null;
+        }
+        return categoryService.findById(id)
+                .map(category -> ResponseEntity.ok(copyOf(category)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @PostMapping
     /**
      * POST /categories
-     * Creates a new category. If productCount is null it defaults to 0.
+     * Creates a new category. productCount is maintained by the server (starts at 0).
      * Returns 201 Created with Location header set to /categories/{id}
      * Example:
      * curl -i -X POST "http://localhost:3000/categories" \
      * -H "Content-Type: application/json" \
      * -d '{"name":"Books","description":"All kinds of
-     * books","icon":"book","productCount":0}'
+     * books","icon":"book"}'
      */
     public ResponseEntity<CategoryDTO> create(@Valid @RequestBody CategoryDTO categoryDto) {
         return categoryService.create(categoryDto);
@@ -61,15 +75,16 @@ public class CategoryController {
     @PutMapping("/{id}")
     /**
      * PUT /categories/{id}
-     * Updates an existing category's fields (name, description, icon,
-     * productCount).
+     * Updates an existing category's fields (name, description, icon).
+     * productCount is maintained by the server and ignored here.
+     * Products reference the category by id, so a rename does not touch them.
      * Returns 200 OK with the updated category, or 404 Not Found if the id doesn't
      * exist.
      * Example:
      * curl -i -X PUT "http://localhost:3000/categories/1" \
      * -H "Content-Type: application/json" \
      * -d
-     * '{"name":"Electronics","description":"Gadgets","icon":"devices","productCount":42}'
+     * '{"name":"Electronics","description":"Gadgets","icon":"devices"}'
      */
     public ResponseEntity<CategoryDTO> update(@PathVariable Long id, @Valid @RequestBody CategoryDTO categoryDto) {
         return categoryService.update(id, categoryDto);
@@ -81,6 +96,7 @@ public class CategoryController {
      * Deletes the category with the given id. Returns:
      * - 204 No Content when deletion succeeds
      * - 404 Not Found when the id does not exist
+     * - 409 Conflict while products still belong to the category
      * Example:
      * curl -i -X DELETE "http://localhost:3000/categories/1"
      */
@@ -88,4 +104,8 @@ public class CategoryController {
         return categoryService.deleteResponse(id);
     }
 
-}
\ No newline at end of file
+    // CategoryService returns the cached instances: responses never hand them out
+    private static CategoryDTO copyOf(CategoryDTO category) {
+        return category.toBuilder().build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.springbackend.controller;
+
+import com.example.springbackend.exception.BadRequestException;
+import com.example.springbackend.exception.PreconditionFailedException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Helper for conditional requests: conditional GETs on catalog resources (ETag / If-None-Match)
+ * and optimistic locking on writes (If-Match with the @Version of the entity).
+ */
+final class ConditionalRequests {
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * Returns true when the client copy is still current; the handler must then return null
+     * and Spring answers 304 Not Modified. Otherwise the ETag is set and the response is marked
+     * "no-cache" (the browser may store it but must revalidate it on every use).
+     */
+    static boolean notModified(WebRequest request, String etag) {
+        if (request.checkNotModified(etag)) {
+            return true;
+        }
+        if (request instanceof ServletWebRequest servlet && servlet.getResponse() != null) {
+            servlet.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        }
+        return false;
+    }
+
+    /**
+     * Strong ETag of a versioned entity: "v{version}"
+     */
+    static String versionEtag(Long version) {
+        return "\"v" + version + "\"";
+    }
+
+    /**
+     * Version the client expects from an If-Match header; null when absent or "*" (no check).
+     * Weak or foreign tags can never match the current version: they fail with 412.
+     */
+    static Long ifMatchVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.contains(",")) {
+            throw new BadRequestException("If-Match with several entity tags is not supported");
+        }
+        if (tag.length() > 3 && tag.startsWith("\"v") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(2, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // falls through to 412
+            }
+        }
+        throw new PreconditionFailedException("If-Match " + tag + " does not match the current version");
+    }
+}
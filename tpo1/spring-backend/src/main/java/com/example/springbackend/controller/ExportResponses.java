@@ -0,0 +1,38 @@
+package com.example.springbackend.controller;
+
+import com.example.springbackend.service.CatalogStreamService.ExportFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Helper that wraps an export (NDJSON / CSV) into a downloadable streaming response,
+ * optionally gzip-compressed on the fly.
+ */
+final class ExportResponses {
+
+    private static final int GZIP_BUFFER = 64 * 1024;
+
+    private ExportResponses() {
+    }
+
+    static ResponseEntity<StreamingResponseBody> download(String name, ExportFormat format, boolean gzip,
+            StreamingResponseBody export) {
+        String filename = name + "." + format.extension() + (gzip ? ".gz" : "");
+        StreamingResponseBody body = !gzip ? export : out -> {
+            GZIPOutputStream compressed = new GZIPOutputStream(out, GZIP_BUFFER);
+            export.writeTo(compressed);
+            compressed.finish(); // the servlet container closes the response stream itself
+        };
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip")
+                        : MediaType.parseMediaType(format.contentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+}
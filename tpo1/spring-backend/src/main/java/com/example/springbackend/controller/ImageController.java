@@ -0,0 +1,140 @@
+package com.example.springbackend.controller;
+
+import com.example.springbackend.exception.ResourceNotFoundException;
+import com.example.springbackend.service.ImageStorageService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+@RestController
+@RequestMapping("/images")
+public class ImageController {
+
+    // Blobs are content-addressed, so a given URL never changes: cache for a year
+    private static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    // Tomcat sendfile request attributes (served by the connector after the servlet returns)
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final ImageStorageService imageStorageService;
+
+    public ImageController(ImageStorageService imageStorageService) {
+        this.imageStorageService = imageStorageService;
+    }
+
+    @GetMapping("/{hash}")
+    /**
+     * GET /images/{hash}
+     * Serves a stored product image.
+     * Responses:
+     * - 200 OK with the image bytes
+     * - 206 Partial Content for a single "Range: bytes=start-end" request
+     * - 304 Not Modified when If-None-Match matches the (strong) ETag
+     * - 416 Range Not Satisfiable for invalid ranges
+     * - 404 Not Found when no image exists with that hash
+     * Example:
+     * curl -i "http://localhost:3000/images/<sha256>" -H "Range: bytes=0-1023"
+     */
+    public void get(@PathVariable String hash, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Path blob = imageStorageService.resolve(hash);
+        if (!Files.isRegularFile(blob)) {
+            throw new ResourceNotFoundException("Image", "hash", hash);
+        }
+
+        String etag = "\"" + hash + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long size = Files.size(blob);
+        long start = 0;
+        long end = size; // exclusive
+
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            long[] bounds = parseRange(range, size);
+            if (bounds == null) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                return;
+            }
+            start = bounds[0];
+            end = bounds[1];
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + size);
+        }
+
+        response.setContentType(imageStorageService.contentType(blob));
+        response.setContentLengthLong(end - start);
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Zero-copy: Tomcat hands the file region to the kernel (sendfile) once we return
+            request.setAttribute(SENDFILE_FILENAME, blob.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            return;
+        }
+
+        // Fallback when the connector does not support sendfile (e.g. TLS)
+        try (FileChannel file = FileChannel.open(blob, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position < end) {
+                position += file.transferTo(position, end - position, out);
+            }
+        }
+    }
+
+    /**
+     * Parses a single "bytes=" range into [start, endExclusive], or null when not satisfiable.
+     * Multi-range requests are answered with the first range only.
+     */
+    private static long[] parseRange(String header, long size) {
+        if (!header.startsWith("bytes=") || size == 0) return null;
+        String spec = header.substring("bytes=".length()).split(",")[0].trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) return null;
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // suffix range: last N bytes
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) return null;
+                return new long[] { Math.max(0, size - suffix), size };
+            }
+            long start = Long.parseLong(first);
+            long endInclusive = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            if (start >= size || endInclusive < start) return null;
+            return new long[] { start, endInclusive + 1 };
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
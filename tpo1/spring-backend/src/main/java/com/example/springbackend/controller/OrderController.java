@@ -1,32 +1,81 @@
 package com.example.springbackend.controller;
 
+import com.example.springbackend.service.CatalogStreamService;
+import com.example.springbackend.service.CatalogStreamService.ExportFormat;
+import com.example.springbackend.service.CheckoutService;
 import com.example.springbackend.service.OrderService;
+import com.example.springbackend.dto.CheckoutRequestDTO;
+import com.example.springbackend.dto.CheckoutResultDTO;
 import com.example.springbackend.dto.OrderDTO;
+import com.example.springbackend.exception.BadRequestException;
+import com.example.springbackend.model.Usuario;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/orders")
 public class OrderController {
 
     private final OrderService orderService;
+    private final CatalogStreamService catalogStreamService;
+    private final CheckoutService checkoutService;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, CatalogStreamService catalogStreamService,
+            CheckoutService checkoutService) {
         this.orderService = orderService;
+        this.catalogStreamService = catalogStreamService;
+        this.checkoutService = checkoutService;
     }
 
-    // Obtener todos los pedidos
+    // Obtener todos los pedidos (con ?fields=id,total,status solo se seleccionan esas columnas)
     @GetMapping
-    public List<OrderDTO> getAllOrders() {
+    public List<?> getAllOrders(@RequestParam(required = false) List<String> fields) {
+        if (fields != null) {
+            return orderService.getAllOrderFields(fields);
+        }
         return orderService.getAllOrders();
     }
 
-    // Obtener un pedido por ID
+    // Obtener todos los pedidos como stream JSON leido de un cursor de la base (memoria constante).
+    // Requiere usuario autenticado y no admite otros parametros (400 en lugar de ignorarlos)
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamOrders(@RequestParam Map<String, String> params) {
+        if (params.size() > 1) {
+            throw new BadRequestException("stream=true does not take other parameters " + params.keySet()
+                    + ": use GET /orders/export");
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(catalogStreamService::writeOrdersJson);
+    }
+
+    // Exportar pedidos como NDJSON o CSV (opcionalmente gzip y solo los creados desde "since")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(@RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        Instant from = CatalogStreamService.parseSince(since);
+        return ExportResponses.download("orders", exportFormat, gzip,
+                out -> catalogStreamService.exportOrders(out, exportFormat, from));
+    }
+
+    // Obtener un pedido por ID (ETag = version del pedido, para usar en If-Match)
     @GetMapping("/{id}")
     public ResponseEntity<OrderDTO> getOrderById(@PathVariable Long id) {
-        return orderService.getOrderById(id);
+        ResponseEntity<OrderDTO> response = orderService.getOrderById(id);
+        if (!response.hasBody()) return response;
+        return ResponseEntity.ok()
+                .eTag(ConditionalRequests.versionEtag(response.getBody().getVersion()))
+                .body(response.getBody());
     }
 
     // Crear un nuevo pedido
@@ -35,16 +84,27 @@ public class OrderController {
         return orderService.createOrder(orderDto);
     }
 
-    // Actualizar un pedido existente
+    // Checkout atomico: descuenta stock, calcula el total en el servidor y crea el pedido con sus lineas.
+    // Si alguna linea no se puede cumplir no se modifica nada y se responde 409 con cada linea fallida.
+    @PostMapping("/checkout")
+    public ResponseEntity<CheckoutResultDTO> checkout(Authentication authentication,
+            @Valid @RequestBody CheckoutRequestDTO request) {
+        Long userId = ((Usuario) authentication.getPrincipal()).getId();
+        return ResponseEntity.ok(checkoutService.checkout(userId, request.getItems()));
+    }
+
+    // Actualizar un pedido existente (con If-Match responde 412 si otro lo modifico antes)
     @PutMapping("/{id}")
-    public ResponseEntity<OrderDTO> updateOrder(@PathVariable Long id, @Valid @RequestBody OrderDTO updatedOrderDto) {
-        return orderService.updateOrCreateOrder(id, updatedOrderDto);
+    public ResponseEntity<OrderDTO> updateOrder(@PathVariable Long id, @Valid @RequestBody OrderDTO updatedOrderDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return orderService.updateOrCreateOrder(id, updatedOrderDto, ConditionalRequests.ifMatchVersion(ifMatch));
     }
 
-    // Eliminar un pedido por ID
+    // Eliminar un pedido por ID (con If-Match responde 412 si otro lo modifico antes)
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteOrder(@PathVariable Long id) {
-        return orderService.deleteOrderResponse(id);
+    public ResponseEntity<Void> deleteOrder(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return orderService.deleteOrderResponse(id, ConditionalRequests.ifMatchVersion(ifMatch));
     }
 
 }
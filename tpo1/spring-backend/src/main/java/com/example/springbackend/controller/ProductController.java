@@ -1,12 +1,31 @@
 package com.example.springbackend.controller;
 
+import com.example.springbackend.service.CatalogStreamService;
+import com.example.springbackend.service.CatalogStreamService.ExportFormat;
+import com.example.springbackend.service.CatalogVersions;
+import com.example.springbackend.service.ProductBulkImportService;
+import com.example.springbackend.service.ProductFilter;
 import com.example.springbackend.service.ProductService;
+import com.example.springbackend.service.ProductSort;
+import com.example.springbackend.dto.BulkImportResultDTO;
+import com.example.springbackend.dto.CursorPageDTO;
+import com.example.springbackend.dto.FacetResultDTO;
 import com.example.springbackend.dto.ProductDTO;
+import com.example.springbackend.dto.StockPatchDTO;
+import com.example.springbackend.exception.BadRequestException;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import org.springframework.security.core.Authentication;
 // SecurityContextHolder and HttpStatus are handled in SecurityConfig/service; not used here
 import com.example.springbackend.model.Usuario;
@@ -15,21 +34,100 @@ import com.example.springbackend.model.Usuario;
 @RequestMapping("/products")
 public class ProductController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+    private static final String MERGE_PATCH_VALUE = "application/merge-patch+json";
+
     private final ProductService productService;
+    private final CatalogVersions catalogVersions;
+    private final CatalogStreamService catalogStreamService;
+    private final ProductBulkImportService productBulkImportService;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, CatalogVersions catalogVersions,
+            CatalogStreamService catalogStreamService, ProductBulkImportService productBulkImportService) {
         this.productService = productService;
+        this.catalogVersions = catalogVersions;
+        this.catalogStreamService = catalogStreamService;
+        this.productBulkImportService = productBulkImportService;
     }
 
     @GetMapping
     /**
      * GET /products
      * Returns a list of all products.
+     * With limit (and optionally cursor / count=true) returns one page, newest first.
+     * The next page cursor is sent in the X-Next-Cursor header and the total in X-Total-Count.
+     * With fields=id,name,... only those columns are selected and returned.
+     * Filters (AND-ed, prices in cents, both bounds inclusive): minPrice, maxPrice, inStock, sellerId.
+     * sort=price|-price|createdAt|-createdAt|name|-name (default -createdAt, newest first);
+     * the cursor of a page only works with the same filters and sort.
+     * Supports If-None-Match: 304 Not Modified (no database access) while the catalog is unchanged.
      * Example:
      * curl -s "http://localhost:3000/products" | jq .
+     * curl -i "http://localhost:3000/products?limit=20&count=true"
+     * curl -s "http://localhost:3000/products?fields=id,name,price&limit=50" | jq .
+     * curl -i "http://localhost:3000/products?minPrice=500000&maxPrice=1500000&inStock=true&sort=-price&limit=20"
+     */
+    public ResponseEntity<? extends List<?>> all(@RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean count,
+            @RequestParam(required = false) List<String> fields,
+            @RequestParam(required = false) Integer minPrice,
+            @RequestParam(required = false) Integer maxPrice,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(required = false) Long sellerId,
+            @RequestParam(required = false) String sort,
+            WebRequest request) {
+        if (ConditionalRequests.notModified(request, catalogVersions.productsEtag())) {
+            return null;
+        }
+        ProductFilter filter = new ProductFilter(null, minPrice, maxPrice, inStock, sellerId);
+        boolean paged = limit != null || cursor != null;
+        if (fields != null || !filter.isEmpty() || sort != null) {
+            return list(filter, sort, paged, limit, cursor, count, fields);
+        }
+        if (!paged) {
+            return ResponseEntity.ok(productService.findAll());
+        }
+        return pageResponse(productService.findPage(cursor, pageSize(limit), count));
+    }
+
+    /**
+     * GET /products?stream=true
+     * Streams every product as a JSON array straight from a database cursor
+     * (constant memory, meant for large exports and admin listings). Requires a logged in user.
+     * Takes no other parameter: filters, category and paging are answered with 400 instead of being ignored.
+     * Example:
+     * curl -s "http://localhost:3000/products?stream=true" -H "Authorization: Bearer <token>" > products.json
+     */
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> stream(@RequestParam Map<String, String> params) {
+        if (params.size() > 1) {
+            throw new BadRequestException("stream=true does not take other parameters " + params.keySet()
+                    + ": use GET /products with filters and paging, or GET /products/export");
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(catalogStreamService::writeProductsJson);
+    }
+
+    @GetMapping("/export")
+    /**
+     * GET /products/export?format=ndjson|csv&since=...&gzip=true
+     * Downloads every product (or only those created since the given instant / date) as NDJSON or CSV,
+     * read from a database cursor so nightly and incremental exports run in constant memory.
+     * Example:
+     * curl -s "http://localhost:3000/products/export?format=csv&since=2025-01-01&gzip=true" \
+     * -H "Authorization: Bearer <token>" -o products.csv.gz
      */
-    public List<ProductDTO> all() {
-        return productService.findAll();
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        Instant from = CatalogStreamService.parseSince(since);
+        return ExportResponses.download("products", exportFormat, gzip,
+                out -> catalogStreamService.exportProducts(out, exportFormat, from));
     }
 
     @GetMapping("/manual")
@@ -40,6 +138,37 @@ public class ProductController {
         return productService.findAllManual();
     }
 
+    @GetMapping("/search")
+    /**
+     * GET /products/search?q={text}&limit={n}
+     * Full-text search over name, description and category, best matches first.
+     * Accents and case are ignored; the last word also matches as a prefix.
+     * Example:
+     * curl -s "http://localhost:3000/products/search?q=electronicos%20auri" | jq .
+     */
+    public List<ProductDTO> search(@RequestParam String q,
+            @RequestParam(defaultValue = "" + ProductService.DEFAULT_PAGE_SIZE) int limit) {
+        return productService.search(q, limit);
+    }
+
+    @GetMapping("/facets")
+    /**
+     * GET /products/facets
+     * Returns the products matching the given filters (newest first, up to limit) and, for each
+     * facet (category, price, inStock, userId), how many products have each value.
+     * Repeat a parameter to OR values: ?category=Ropa&category=Deportes&price=0-10000&inStock=true
+     * Price buckets (cents): 0-10000, 10000-25000, 25000-50000, 50000-100000, 100000+
+     * Example:
+     * curl -s "http://localhost:3000/products/facets?category=Electrónicos&inStock=true" | jq .
+     */
+    public FacetResultDTO facets(@RequestParam(required = false) List<String> category,
+            @RequestParam(required = false) List<String> price,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(required = false) List<Long> sellerId,
+            @RequestParam(defaultValue = "" + ProductService.DEFAULT_PAGE_SIZE) int limit) {
+        return productService.facets(category, price, inStock, sellerId, limit);
+    }
+
     @GetMapping("/{id}")
     /**
      * GET /products/{id}
@@ -47,22 +176,71 @@ public class ProductController {
      * Responses:
      * - 200 OK with the product JSON when found
      * - 404 Not Found when no product exists with that id
+     * - 304 Not Modified when If-None-Match matches (served from the product cache)
+     * The ETag is the product version ("v3"); send it back in If-Match on PUT / PATCH / DELETE.
      * Example:
      * curl -i "http://localhost:3000/products/1"
      */
-    public ProductDTO getById(@PathVariable Long id) {
-        return productService.findById(id);
+    public ProductDTO getById(@PathVariable Long id, WebRequest request) {
+        ProductDTO product = productService.findById(id);
+        if (ConditionalRequests.notModified(request, ConditionalRequests.versionEtag(product.getVersion()))) {
+            return null;
+        }
+        return copyOf(product);
     }
 
-    @GetMapping(params = "category")
+    @GetMapping(params = { "category", "!stream" })
     /**
      * GET /products?category={category}
      * Returns products that belong to the given category.
+     * Accepts the same paging, fields, filter and sort parameters as GET /products.
      * Example:
      * curl -s "http://localhost:3000/products?category=Electronics" | jq .
+     * curl -i "http://localhost:3000/products?category=Electronics&limit=20"
+     * curl -s "http://localhost:3000/products?category=Electronics&fields=id,name,price" | jq .
+     * curl -s "http://localhost:3000/products?category=Electronics&maxPrice=500000&sort=price" | jq .
      */
-    public List<ProductDTO> byCategory(@RequestParam String category) {
-        return productService.findByCategory(category);
+    public ResponseEntity<? extends List<?>> byCategory(@RequestParam String category,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean count,
+            @RequestParam(required = false) List<String> fields,
+            @RequestParam(required = false) Integer minPrice,
+            @RequestParam(required = false) Integer maxPrice,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(required = false) Long sellerId,
+            @RequestParam(required = false) String sort,
+            WebRequest request) {
+        if (ConditionalRequests.notModified(request, catalogVersions.productsEtag())) {
+            return null;
+        }
+        ProductFilter filter = new ProductFilter(category, minPrice, maxPrice, inStock, sellerId);
+        boolean paged = limit != null || cursor != null;
+        if (fields != null || filter.hasNonCategoryFilters() || sort != null) {
+            return list(filter, sort, paged, limit, cursor, count, fields);
+        }
+        if (!paged) {
+            return ResponseEntity.ok(productService.findByCategory(category).stream()
+                    .map(ProductController::copyOf).toList());
+        }
+        return pageResponse(productService.findPageByCategory(category, cursor, pageSize(limit), count));
+    }
+
+    // Filtered / sorted / sparse listing, built as a JPA Specification (see ProductFilter and ProductSort)
+    private ResponseEntity<? extends List<?>> list(ProductFilter filter, String sort, boolean paged, Integer limit,
+            String cursor, boolean count, List<String> fields) {
+        ProductSort order = sort == null ? null : ProductSort.parse(sort);
+        filter.requireIndexFor(ProductSort.parse(sort));
+        if (fields != null) {
+            return paged
+                    ? pageResponse(productService.findFieldsPage(fields, filter, ProductSort.parse(sort), cursor,
+                            pageSize(limit), count))
+                    : ResponseEntity.ok(productService.findFields(fields, filter, order));
+        }
+        return paged
+                ? pageResponse(productService.findFilteredPage(filter, ProductSort.parse(sort), cursor,
+                        pageSize(limit), count))
+                : ResponseEntity.ok(productService.findFiltered(filter, ProductSort.parse(sort)));
     }
 
     @PostMapping
@@ -83,20 +261,74 @@ public class ProductController {
         return productService.create(productDto);
     }
 
+    @PostMapping(value = "/bulk", consumes = { NDJSON_VALUE, "text/csv" })
+    /**
+     * POST /products/bulk
+     * Imports many products in one request. The body is read as a stream (NDJSON: one product per line,
+     * or CSV with a header row) and inserted in JDBC batches; every product belongs to the caller.
+     * Invalid lines are skipped and reported with their line number.
+     * Example:
+     * curl -i -X POST "http://localhost:3000/products/bulk" \
+     * -H "Authorization: Bearer <token>" -H "Content-Type: text/csv" \
+     * --data-binary @products.csv
+     */
+    public BulkImportResultDTO bulkImport(Authentication authentication,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            HttpServletRequest request) throws IOException {
+        Long userId = ((Usuario) authentication.getPrincipal()).getId();
+        if (contentType.isCompatibleWith(MediaType.valueOf(NDJSON_VALUE))) {
+            return productBulkImportService.importNdjson(request.getInputStream(), userId);
+        }
+        return productBulkImportService.importCsv(request.getInputStream(), userId);
+    }
+
     @PutMapping("/{id}")
     /**
      * PUT /products/{id}
      * Updates an existing product's fields. Returns 200 OK with the updated
      * product,
      * or 404 Not Found if the id doesn't exist.
+     * With If-Match (the ETag of GET /products/{id}) answers 412 if someone else changed it meanwhile.
      * Example:
      * curl -i -X PUT "http://localhost:3000/products/1" \
-     * -H "Content-Type: application/json" \
+     * -H "Content-Type: application/json" -H 'If-Match: "v3"' \
      * -d '{"name":"Phone
      * X","price":64900,"category":"Electronics","description":"Updated","image":"/img/phone-x.png","stock":8,"userId":1}'
      */
-    public ProductDTO update(@PathVariable Long id, @Valid @RequestBody ProductDTO productDto) {
-        return productService.update(id, productDto);
+    public ProductDTO update(@PathVariable Long id, @Valid @RequestBody ProductDTO productDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return productService.update(id, productDto, ConditionalRequests.ifMatchVersion(ifMatch));
+    }
+
+    @PatchMapping(value = "/{id}", consumes = { MERGE_PATCH_VALUE, MediaType.APPLICATION_JSON_VALUE })
+    /**
+     * PATCH /products/{id}
+     * JSON Merge Patch: only the fields sent are changed (null clears description / image).
+     * Runs a single UPDATE of those columns; 404 if the id doesn't exist, 400 for unknown or invalid fields,
+     * 412 if If-Match no longer matches the version.
+     * Example:
+     * curl -i -X PATCH "http://localhost:3000/products/1" \
+     * -H "Content-Type: application/merge-patch+json" -d '{"price":54900}'
+     */
+    public ProductDTO patch(@PathVariable Long id, @RequestBody Map<String, Object> patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return productService.patch(id, patch, ConditionalRequests.ifMatchVersion(ifMatch));
+    }
+
+    @PatchMapping("/{id}/stock")
+    /**
+     * PATCH /products/{id}/stock
+     * Changes only the stock: {"delta":-2} adds/subtracts units atomically, {"set":10} replaces the value.
+     * Returns 409 Conflict (and changes nothing) when a delta would leave the stock below zero.
+     * If-Match is honoured (412) for set; a delta commutes, so a stale If-Match is retried on the current
+     * version unless products.stock-delta.retry-on-conflict=false.
+     * Example:
+     * curl -i -X PATCH "http://localhost:3000/products/1/stock" \
+     * -H "Content-Type: application/json" -d '{"delta":-1}'
+     */
+    public ProductDTO patchStock(@PathVariable Long id, @RequestBody StockPatchDTO stockPatch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return productService.patchStock(id, stockPatch, ConditionalRequests.ifMatchVersion(ifMatch));
     }
 
     @DeleteMapping("/{id}")
@@ -105,22 +337,50 @@ public class ProductController {
      * Deletes the product with the given id. Returns:
      * - 204 No Content when deletion succeeds
      * - 404 Not Found when the id does not exist
+     * - 412 Precondition Failed when If-Match does not match the current version
      * Example:
-     * curl -i -X DELETE "http://localhost:3000/products/1"
+     * curl -i -X DELETE "http://localhost:3000/products/1" -H 'If-Match: "v3"'
      */
-    public ResponseEntity<Void> delete(@PathVariable Long id) {
+    public ResponseEntity<Void> delete(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         if (!productService.exists(id))
             return ResponseEntity.notFound().build();
-        productService.delete(id);
+        productService.delete(id, ConditionalRequests.ifMatchVersion(ifMatch));
         return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/my-products")
-    public List<ProductDTO> myProducts(Authentication authentication) {
+    public ResponseEntity<List<ProductDTO>> myProducts(Authentication authentication,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean count) {
         // Authentication is enforced in SecurityConfig; controller assumes an authenticated principal
         Usuario usuario = (Usuario) authentication.getPrincipal();
         Long userId = usuario.getId();
-        return productService.findByUserId(userId);
+        if (limit == null && cursor == null) {
+            return ResponseEntity.ok(productService.findByUserId(userId));
+        }
+        return pageResponse(productService.findPageByUserId(userId, cursor, pageSize(limit), count));
     }
 
-}
\ No newline at end of file
+    private static int pageSize(Integer limit) {
+        return limit != null ? limit : ProductService.DEFAULT_PAGE_SIZE;
+    }
+
+    // Keeps the body a plain JSON array (same shape as the unpaged endpoints) and moves paging data to headers
+    private static <T> ResponseEntity<List<T>> pageResponse(CursorPageDTO<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        if (page.getTotal() != null) {
+            response.header(TOTAL_COUNT_HEADER, String.valueOf(page.getTotal()));
+        }
+        return response.body(page.getItems());
+    }
+
+    // ProductService.findById / findByCategory return the cached instances: responses never hand them out
+    private static ProductDTO copyOf(ProductDTO product) {
+        return product.toBuilder().build();
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.springbackend.controller;
+
+import com.example.springbackend.dto.CategoryDTO;
+import com.example.springbackend.dto.ProductDTO;
+import com.example.springbackend.exception.BadRequestException;
+import com.example.springbackend.exception.ResourceNotFoundException;
+import com.example.springbackend.service.CatalogVersions;
+import com.example.springbackend.service.ProductFilter;
+import com.example.springbackend.service.ProductService;
+import com.example.springbackend.service.ReactiveCatalogService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Functional WebFlux endpoints of the reactive read path (served by ReactiveCatalogServer on its own port).
+ * Same JSON shapes and ETag values as the MVC controllers for anonymous catalog browsing:
+ * - GET /products?category=&minPrice=&maxPrice=&inStock=&sellerId=&afterId=&limit=
+ *   (JSON array, or NDJSON with Accept: application/x-ndjson)
+ * - GET /products/{id}
+ * - GET /categories
+ * - GET /categories/{id}
+ * Differences with GET /products on the MVC port:
+ * - the list is ordered by id, like ?stream=true (the paged MVC default is newest first);
+ * - cursor, count, fields and sort are not supported and answer 400; afterId (last id received) resumes a
+ *   stream instead of the cursor;
+ * - limit defaults to the MVC page size and is capped at catalog.reactive.max-limit (400 above it): whole
+ *   tables are only downloaded through the authenticated /products/export.
+ * Lists are streamed element by element from the database cursor; nothing is collected in memory.
+ * Errors answer {"error": "..."} like GlobalExceptionHandler.
+ */
+@Component
+public class ReactiveCatalogHandler {
+
+    // GET /products parameters of the MVC controller that this path does not implement
+    private static final List<String> UNSUPPORTED_PRODUCT_PARAMS = List.of("cursor", "count", "fields", "sort");
+
+    private final ReactiveCatalogService catalogService;
+    private final CatalogVersions catalogVersions;
+    private final int maxLimit;
+
+    public ReactiveCatalogHandler(ReactiveCatalogService catalogService, CatalogVersions catalogVersions,
+            @Value("${catalog.reactive.max-limit:1000}") int maxLimit) {
+        this.catalogService = catalogService;
+        this.catalogVersions = catalogVersions;
+        this.maxLimit = maxLimit;
+    }
+
+    public RouterFunction<ServerResponse> routes() {
+        return RouterFunctions.route()
+                .GET("/products/{id}", deferred(this::product))
+                .GET("/products", deferred(this::products))
+                .GET("/categories/{id}", deferred(this::category))
+                .GET("/categories", deferred(this::categories))
+                .onError(ResourceNotFoundException.class, (e, request) -> error(HttpStatus.NOT_FOUND, e))
+                .onError(BadRequestException.class, (e, request) -> error(HttpStatus.BAD_REQUEST, e))
+                .build();
+    }
+
+    /**
+     * Turns exceptions thrown while reading the parameters into an error signal, so onError handles them too
+     */
+    private static HandlerFunction<ServerResponse> deferred(HandlerFunction<ServerResponse> handler) {
+        return request -> Mono.defer(() -> handler.handle(request));
+    }
+
+    /**
+     * GET /products (304 without database access while no product changed, as in MVC; the ETag counts product
+     * changes, so it is valid for any filter)
+     * curl -N -H "Accept: application/x-ndjson" "http://localhost:3001/products?category=Ropa"
+     */
+    Mono<ServerResponse> products(ServerRequest request) {
+        String etag = catalogVersions.productsEtag();
+        if (notModified(request, etag)) return notModifiedResponse(etag);
+        for (String name : UNSUPPORTED_PRODUCT_PARAMS) {
+            if (request.queryParam(name).isPresent()) {
+                throw new BadRequestException(name + " is not supported on the reactive read path (use the MVC port)");
+            }
+        }
+        String category = request.queryParam("category").filter(value -> !value.isBlank()).orElse(null);
+        ProductFilter filter = new ProductFilter(category, intParam(request, "minPrice"), intParam(request, "maxPrice"),
+                booleanParam(request, "inStock"), longParam(request, "sellerId"));
+        Long afterId = longParam(request, "afterId");
+        Integer requested = intParam(request, "limit");
+        int limit = requested != null ? requested : ProductService.DEFAULT_PAGE_SIZE;
+        if (limit < 1 || limit > maxLimit) {
+            throw new BadRequestException("limit must be between 1 and " + maxLimit
+                    + " (afterId continues after the last id received; /products/export downloads everything)");
+        }
+        return ok(etag).varyBy(HttpHeaders.ACCEPT).contentType(listMediaType(request))
+                .body(catalogService.findProducts(filter, afterId, limit), ProductDTO.class);
+    }
+
+    Mono<ServerResponse> product(ServerRequest request) {
+        Long id = pathId(request);
+        return catalogService.findProduct(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Product", "id", id)))
+                .flatMap(product -> {
+                    String etag = ConditionalRequests.versionEtag(product.getVersion());
+                    return notModified(request, etag) ? notModifiedResponse(etag)
+                            : ok(etag).contentType(MediaType.APPLICATION_JSON).bodyValue(product);
+                });
+    }
+
+    Mono<ServerResponse> categories(ServerRequest request) {
+        String etag = catalogVersions.categoriesEtag();
+        if (notModified(request, etag)) return notModifiedResponse(etag);
+        return ok(etag).varyBy(HttpHeaders.ACCEPT).contentType(listMediaType(request))
+                .body(catalogService.findCategories(), CategoryDTO.class);
+    }
+
+    Mono<ServerResponse> category(ServerRequest request) {
+        Long id = pathId(request);
+        String etag = catalogVersions.categoryEtag(id);
+        if (notModified(request, etag)) return notModifiedResponse(etag);
+        return catalogService.findCategory(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Category", "id", id)))
+                .flatMap(category -> ok(etag).contentType(MediaType.APPLICATION_JSON).bodyValue(category));
+    }
+
+    /**
+     * NDJSON when the client asks for it explicitly (a wildcard Accept gets the JSON array)
+     */
+    private static MediaType listMediaType(ServerRequest request) {
+        return request.headers().accept().stream()
+                .anyMatch(type -> type.equalsTypeAndSubtype(MediaType.APPLICATION_NDJSON))
+                ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON;
+    }
+
+    private static ServerResponse.BodyBuilder ok(String etag) {
+        return ServerResponse.ok().eTag(etag).cacheControl(CacheControl.noCache());
+    }
+
+    // JSON array and NDJSON share the ETag: Vary tells caches the representation depends on Accept
+    private static Mono<ServerResponse> notModifiedResponse(String etag) {
+        return ServerResponse.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+    }
+
+    /**
+     * If-None-Match check (weak comparison, "*" or a list of tags)
+     */
+    private static boolean notModified(ServerRequest request, String etag) {
+        for (String header : request.headers().header(HttpHeaders.IF_NONE_MATCH)) {
+            for (String tag : header.split(",")) {
+                String value = tag.trim();
+                if (value.startsWith("W/")) value = value.substring(2);
+                if (value.equals("*") || value.equals(etag)) return true;
+            }
+        }
+        return false;
+    }
+
+    private static Mono<ServerResponse> error(HttpStatus status, Throwable e) {
+        return ServerResponse.status(status).contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("error", e.getMessage()));
+    }
+
+    private static Long pathId(ServerRequest request) {
+        String id = request.pathVariable("id");
+        try {
+            return Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid id: " + id);
+        }
+    }
+
+    private static Integer intParam(ServerRequest request, String name) {
+        String value = request.queryParam(name).orElse(null);
+        if (value == null || value.isBlank()) return null;
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid " + name + ": " + value);
+        }
+    }
+
+    private static Boolean booleanParam(ServerRequest request, String name) {
+        String value = request.queryParam(name).orElse(null);
+        if (value == null || value.isBlank()) return null;
+        return switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "true" -> true;
+            case "false" -> false;
+            default -> throw new BadRequestException("Invalid " + name + ": " + value);
+        };
+    }
+
+    private static Long longParam(ServerRequest request, String name) {
+        String value = request.queryParam(name).orElse(null);
+        if (value == null || value.isBlank()) return null;
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid " + name + ": " + value);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.springbackend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de POST /products/bulk: filas insertadas, filas rechazadas y
+ * el detalle (numero de linea + motivo) de las primeras filas rechazadas.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkImportResultDTO {
+    private int inserted;
+    private int failed;
+    private List<LineError> errors = new ArrayList<>();
+    private boolean errorsTruncated;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class LineError {
+        private long line;
+        private String error;
+    }
+}
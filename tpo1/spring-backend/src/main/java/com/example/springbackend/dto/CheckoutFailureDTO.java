@@ -0,0 +1,18 @@
+package com.example.springbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One cart line that could not be fulfilled (reason: NOT_FOUND or INSUFFICIENT_STOCK)
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CheckoutFailureDTO {
+    private Long productId;
+    private Integer requested;
+    private Integer available;
+    private String reason;
+}
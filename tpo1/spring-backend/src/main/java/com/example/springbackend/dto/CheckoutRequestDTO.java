@@ -0,0 +1,35 @@
+package com.example.springbackend.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Body of POST /orders/checkout: the cart as a list of {productId, quantity}
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CheckoutRequestDTO {
+
+    @NotEmpty(message = "Items are required")
+    private List<@Valid Item> items;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Item {
+        @NotNull(message = "Product ID is required")
+        private Long productId;
+
+        @NotNull(message = "Quantity is required")
+        @Min(value = 1, message = "Quantity must be at least 1")
+        private Integer quantity;
+    }
+}
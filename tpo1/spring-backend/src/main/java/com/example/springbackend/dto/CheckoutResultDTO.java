@@ -0,0 +1,20 @@
+package com.example.springbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Response of a successful checkout: the order, its line items and the stock left per product
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CheckoutResultDTO {
+    private OrderDTO order;
+    private List<OrderItemDTO> items;
+    private Map<Long, Integer> remainingStock;
+}
@@ -0,0 +1,20 @@
+package com.example.springbackend.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Pagina de resultados obtenida por keyset pagination.
+ * nextCursor es opaco para el cliente y es null cuando no hay mas paginas.
+ * total solo se calcula si el cliente lo pide (count=true).
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPageDTO<T> {
+    private List<T> items;
+    private String nextCursor;
+    private Long total;
+}
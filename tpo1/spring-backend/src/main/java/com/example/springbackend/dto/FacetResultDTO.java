@@ -0,0 +1,20 @@
+package com.example.springbackend.dto;
+
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de /products/facets: total de coincidencias, una pagina de productos
+ * y, por cada faceta (category, price, inStock, userId), la cantidad de productos por valor.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class FacetResultDTO {
+    private long total;
+    private List<ProductDTO> products;
+    private Map<String, Map<String, Integer>> facets;
+}
@@ -0,0 +1,18 @@
+package com.example.springbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * State of a memory-backed product in InventoryEngine
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class HotInventoryDTO {
+    private Long productId;
+    private int available;     // units that can still be reserved
+    private long reserved;     // units held by checkouts in progress
+    private int pendingFlush;  // units sold (or restocked, if negative) not yet written to products.stock
+}
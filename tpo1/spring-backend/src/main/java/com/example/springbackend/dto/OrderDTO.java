@@ -28,4 +28,7 @@ public class OrderDTO {
     @NotBlank(message = "Status is required")
     @Pattern(regexp = "PENDIENTE|COMPLETADO|CANCELADO", message = "Status must be PENDIENTE, COMPLETADO, or CANCELADO")
     private String status;
+
+    // optimistic locking version (also sent as the ETag of GET /orders/{id}); ignored on writes
+    private Long version;
 }
@@ -0,0 +1,15 @@
+package com.example.springbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderItemDTO {
+    private Long orderId;
+    private Long productId;
+    private Integer quantity;
+    private Integer unitPrice; // in cents
+}
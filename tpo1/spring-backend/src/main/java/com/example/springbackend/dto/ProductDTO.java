@@ -2,6 +2,7 @@ package com.example.springbackend.dto;
 
 import java.time.Instant;
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -10,16 +11,21 @@ import lombok.NoArgsConstructor;
  * Usamos Lombok para reducir el boilerplate (getters/setters/constructors/builder).
  */
 @Data
+@Builder(toBuilder = true)
 @AllArgsConstructor
 @NoArgsConstructor
 public class ProductDTO {
     private Long id;
     private String name;
     private Integer price;
+    // category name (what clients show and filter by); categoryId is the stored foreign key
     private String category;
+    private Long categoryId;
     private String description;
     private String image;
     private Integer stock;
     private Instant createdAt;
     private Long userId;
+    // optimistic locking version (also sent as the ETag of GET /products/{id}); ignored on writes
+    private Long version;
 }
@@ -0,0 +1,16 @@
+package com.example.springbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Body of PATCH /products/{id}/stock: exactly one of delta (relative change) or set (absolute value)
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockPatchDTO {
+    private Integer delta;
+    private Integer set;
+}
@@ -0,0 +1,23 @@
+package com.example.springbackend.exception;
+
+import com.example.springbackend.dto.CheckoutFailureDTO;
+
+import java.util.List;
+
+/**
+ * Exception thrown when at least one cart line cannot be fulfilled.
+ * The checkout transaction is rolled back and the client receives every failed line.
+ */
+public class CheckoutFailedException extends RuntimeException {
+
+    private final List<CheckoutFailureDTO> failures;
+
+    public CheckoutFailedException(List<CheckoutFailureDTO> failures) {
+        super("Checkout failed: " + failures.size() + " item(s) cannot be fulfilled");
+        this.failures = failures;
+    }
+
+    public List<CheckoutFailureDTO> getFailures() {
+        return failures;
+    }
+}
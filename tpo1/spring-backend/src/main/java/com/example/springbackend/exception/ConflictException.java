@@ -0,0 +1,12 @@
+package com.example.springbackend.exception;
+
+/**
+ * Exception thrown when a request conflicts with the current state of a resource
+ * (e.g. not enough stock to apply a decrement)
+ */
+public class ConflictException extends RuntimeException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.springbackend.exception;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -25,6 +26,35 @@ public class GlobalExceptionHandler {
                 .body(Map.of("error", ex.getMessage()));
     }
 
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<Map<String, String>> handleConflict(ConflictException ex) {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT) // 409
+                .body(Map.of("error", ex.getMessage()));
+    }
+
+    @ExceptionHandler(CheckoutFailedException.class)
+    public ResponseEntity<Map<String, Object>> handleCheckoutFailed(CheckoutFailedException ex) {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT) // 409
+                .body(Map.of("error", ex.getMessage(), "failures", ex.getFailures()));
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<Map<String, String>> handlePreconditionFailed(PreconditionFailedException ex) {
+        return ResponseEntity
+                .status(HttpStatus.PRECONDITION_FAILED) // 412
+                .body(Map.of("error", ex.getMessage()));
+    }
+
+    // Concurrent write detected by the @Version check while flushing
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleOptimisticLocking(OptimisticLockingFailureException ex) {
+        return ResponseEntity
+                .status(HttpStatus.PRECONDITION_FAILED) // 412
+                .body(Map.of("error", "The resource was modified by someone else; reload it and try again"));
+    }
+
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<Map<String, String>> handleResourceNotFound(ResourceNotFoundException ex) {
         return ResponseEntity
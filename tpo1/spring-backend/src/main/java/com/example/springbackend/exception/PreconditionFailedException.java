@@ -0,0 +1,17 @@
+package com.example.springbackend.exception;
+
+/**
+ * Exception thrown when an If-Match precondition does not hold:
+ * the resource changed since the client read it (optimistic locking conflict)
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+
+    public static PreconditionFailedException staleVersion(String resource, Object id) {
+        return new PreconditionFailedException(
+                resource + " " + id + " was modified by someone else; reload it and try again");
+    }
+}
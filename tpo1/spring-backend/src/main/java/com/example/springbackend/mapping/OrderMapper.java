@@ -22,7 +22,7 @@ public class OrderMapper {
     public OrderDTO toDto(Order entity) {
         if (entity == null) return null;
         return new OrderDTO(entity.getId(), entity.getUserId(), entity.getCreatedAt(), entity.getTotal(),
-                entity.getStatus());
+                entity.getStatus(), entity.getVersion());
     }
 
     public List<OrderDTO> toDtoList(List<Order> entities) {
@@ -5,19 +5,30 @@ import java.util.stream.Collectors;
 import org.springframework.stereotype.Component;
 import com.example.springbackend.dto.ProductDTO;
 import com.example.springbackend.model.Product;
+import com.example.springbackend.service.CategoryLookup;
+import com.example.springbackend.service.ImageStorageService;
 
 @Component
 public class ProductMapper {
 
+  private final ImageStorageService imageStorageService;
+  private final CategoryLookup categoryLookup;
+
+  public ProductMapper(ImageStorageService imageStorageService, CategoryLookup categoryLookup) {
+    this.imageStorageService = imageStorageService;
+    this.categoryLookup = categoryLookup;
+  }
+
   public Product toEntity(ProductDTO dto) {
     if (dto == null) return null;
     Product p = new Product();
     p.setId(dto.getId());
     p.setName(dto.getName());
     p.setPrice(dto.getPrice());
-    p.setCategory(dto.getCategory());
+    // accepts either the category name or its id; unknown ones are rejected with 400
+    p.setCategoryId(categoryLookup.resolve(dto.getCategoryId(), dto.getCategory()));
     p.setDescription(dto.getDescription());
-    p.setImage(dto.getImage());
+    p.setImage(imageStorageService.toStoredReference(dto.getImage()));
     p.setStock(dto.getStock());
     p.setCreatedAt(dto.getCreatedAt());
     p.setUserId(dto.getUserId());
@@ -26,13 +37,16 @@ public class ProductMapper {
 
   public ProductDTO toDto(Product entity) {
     if (entity == null) return null;
-    return new ProductDTO(entity.getId(), entity.getName(), entity.getPrice(), entity.getCategory(),
-        entity.getDescription(), entity.getImage(), entity.getStock(), entity.getCreatedAt(),
-        entity.getUserId());
+    return new ProductDTO(entity.getId(), entity.getName(), entity.getPrice(),
+        categoryLookup.nameOf(entity.getCategoryId()), entity.getCategoryId(), entity.getDescription(),
+        imageStorageService.toPublicUrl(entity.getImage()), entity.getStock(), entity.getCreatedAt(),
+        entity.getUserId(), entity.getVersion());
   }
 
   public List<ProductDTO> toDtoList(List<Product> entities) {
     if (entities == null) return null;
+    // one query for the categories not cached yet instead of one per product
+    categoryLookup.preload(entities.stream().map(Product::getCategoryId).collect(Collectors.toSet()));
     return entities.stream().map(this::toDto).collect(Collectors.toList());
   }
 
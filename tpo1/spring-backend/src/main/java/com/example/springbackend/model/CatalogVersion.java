@@ -0,0 +1,31 @@
+package com.example.springbackend.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Version counter shared by every instance (see CatalogVersions), one row per ETag resource.
+ * Written with plain JDBC; mapped so ddl-auto=validate checks it and ddl-auto=update (perf profile) creates it.
+ */
+@Entity
+@Table(name = "catalog_versions")
+public class CatalogVersion {
+
+    // "products", "categories"
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(nullable = false)
+    private Long version;
+
+    // Constructor vacío requerido por JPA
+    public CatalogVersion() {}
+
+    public String getName() {
+        return name;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+}
@@ -4,9 +4,20 @@ import jakarta.persistence.*;
 import java.time.Instant;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        // exports incrementales (since=) recorren este indice
+        @Index(name = "idx_orders_created_id", columnList = "created_at, id"),
+        // pedidos de un usuario y por estado (migracion V3)
+        @Index(name = "idx_orders_user_created", columnList = "user_id, created_at"),
+        @Index(name = "idx_orders_status", columnList = "status")
+})
 public class Order {
 
+    // Estados del pedido (los que acepta OrderDTO.status)
+    public static final String PENDIENTE = "PENDIENTE";
+    public static final String COMPLETADO = "COMPLETADO";
+    public static final String CANCELADO = "CANCELADO";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -20,9 +31,14 @@ public class Order {
     // Monto total del pedido
     private Double total;
 
-    // Estado del pedido (ej: "PENDIENTE", "COMPLETADO", "CANCELADO")
+    // Estado del pedido (PENDIENTE, COMPLETADO o CANCELADO)
     private String status;
 
+    // Bloqueo optimista: Hibernate lo incrementa en cada actualizacion
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     // Constructor vacío requerido por JPA
     public Order() {}
 
@@ -70,4 +86,8 @@ public class Order {
     public void setStatus(String status) {
         this.status = status;
     }
+
+    public Long getVersion() {
+        return version;
+    }
 }
@@ -0,0 +1,78 @@
+package com.example.springbackend.model;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "order_items", indexes = {
+        @Index(name = "idx_order_items_order", columnList = "order_id")
+})
+public class OrderItem {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Pedido al que pertenece la linea
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    // Producto comprado
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    // Unidades compradas
+    @Column(nullable = false)
+    private Integer quantity;
+
+    // Precio unitario (en centavos) al momento de la compra
+    @Column(name = "unit_price", nullable = false)
+    private Integer unitPrice;
+
+    // Constructor vacío requerido por JPA
+    public OrderItem() {}
+
+    // Constructor con campos
+    public OrderItem(Long orderId, Long productId, Integer quantity, Integer unitPrice) {
+        this.orderId = orderId;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.unitPrice = unitPrice;
+    }
+
+    // Getters y Setters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public Integer getUnitPrice() {
+        return unitPrice;
+    }
+
+    public void setUnitPrice(Integer unitPrice) {
+        this.unitPrice = unitPrice;
+    }
+}
@@ -4,7 +4,17 @@ import jakarta.persistence.*;
 import java.time.Instant;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        // keyset pagination: ORDER BY created_at DESC, id DESC (+ optional category / user filter)
+        @Index(name = "idx_products_created_id", columnList = "created_at, id"),
+        @Index(name = "idx_products_category_id_created_id", columnList = "category_id, created_at, id"),
+        @Index(name = "idx_products_user_created_id", columnList = "user_id, created_at, id"),
+        // GET /products filters and sorts (ProductFilter / ProductSort): price range with or without
+        // category, ?sort=price|name; seller filters reuse idx_products_user_created_id
+        @Index(name = "idx_products_category_id_price_id", columnList = "category_id, price, id"),
+        @Index(name = "idx_products_price_id", columnList = "price, id"),
+        @Index(name = "idx_products_name_id", columnList = "name, id")
+})
 public class Product {
 
     @Id
@@ -13,13 +23,22 @@ public class Product {
 
     private String name;
     private Integer price; // in cents
-    private String category;
+
+    // FK to categories.id (the name is resolved through CategoryLookup, see ProductMapper)
+    @Column(name = "category_id")
+    private Long categoryId;
+
+    // Only declares the foreign key constraint; never loaded or written (categoryId is the writable column)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "category_id", insertable = false, updatable = false,
+            foreignKey = @ForeignKey(name = "fk_products_category"))
+    private Category category;
 
     @Column(length = 2000)
     private String description;
 
-    @Lob
-    @Column(columnDefinition = "LONGTEXT") // permite almacenar Base64 grandes
+    // "/images/{sha256}" (ver ImageStorageService) o una URL externa; el binario vive en disco
+    @Column(length = 1024)
     private String image;
     private Integer stock;
     @Column(name = "created_at")
@@ -28,6 +47,15 @@ public class Product {
     @Column(name = "user_id")
     private Long userId;
 
+    // true: stock lives in InventoryEngine (memory) and is written back in batches
+    @Column(name = "hot", nullable = false, columnDefinition = "boolean default false")
+    private boolean hot;
+
+    // optimistic locking: every write (JPA or targeted UPDATE) increments it
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     public Product() {}
 
     // Getters and setters
@@ -56,12 +84,12 @@ public class Product {
         this.price = price;
     }
 
-    public String getCategory() {
-        return category;
+    public Long getCategoryId() {
+        return categoryId;
     }
 
-    public void setCategory(String category) {
-        this.category = category;
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
     }
 
     public String getDescription() {
@@ -103,4 +131,16 @@ public class Product {
     public void setUserId(Long userId) {
         this.userId = userId;
     }
-}
\ No newline at end of file
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public boolean isHot() {
+        return hot;
+    }
+
+    public void setHot(boolean hot) {
+        this.hot = hot;
+    }
+}
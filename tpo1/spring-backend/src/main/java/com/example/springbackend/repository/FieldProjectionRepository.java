@@ -0,0 +1,92 @@
+package com.example.springbackend.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sparse fieldset queries: selects only the requested attributes as a JPA tuple projection.
+ * No managed entities are created, so neither the persistence context nor unused columns
+ * (description, image, ...) are loaded. Callers must validate field names against a whitelist.
+ * updateFields is the write counterpart: a single UPDATE of only the given attributes.
+ */
+@Repository
+public class FieldProjectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public <T> List<Map<String, Object>> findFields(Class<T> entityType, Collection<String> fields,
+            Specification<T> spec, Sort sort, Integer limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(entityType);
+
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            selections.add(root.get(field).alias(field));
+        }
+        query.multiselect(selections);
+
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) query.where(predicate);
+        }
+        if (sort != null && sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+
+        TypedQuery<Tuple> typed = entityManager.createQuery(query);
+        if (limit != null) typed.setMaxResults(limit);
+
+        List<Tuple> tuples = typed.getResultList();
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (TupleElement<?> element : tuple.getElements()) {
+                row.put(element.getAlias(), tuple.get(element));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * UPDATE entity SET field = value, ..., version = version + 1 WHERE id = :id [AND version = :expectedVersion]
+     * The entity must have a numeric "version" attribute (@Version).
+     * @return number of updated rows (0 when the id does not exist or the version no longer matches)
+     */
+    public <T> int updateFields(Class<T> entityType, Object id, Long expectedVersion, Map<String, Object> values) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<T> update = cb.createCriteriaUpdate(entityType);
+        Root<T> root = update.from(entityType);
+        values.forEach(update::set);
+        Path<Long> version = root.get("version");
+        update.set(version, cb.sum(version, 1L));
+        Predicate where = cb.equal(root.get("id"), id);
+        if (expectedVersion != null) {
+            where = cb.and(where, cb.equal(version, expectedVersion));
+        }
+        update.where(where);
+        return entityManager.createQuery(update).executeUpdate();
+    }
+}
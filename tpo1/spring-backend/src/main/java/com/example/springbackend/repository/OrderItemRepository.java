@@ -0,0 +1,25 @@
+package com.example.springbackend.repository;
+
+import com.example.springbackend.model.OrderItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+	/**
+	 * Lineas de un pedido.
+	 */
+	List<OrderItem> findByOrderId(Long orderId);
+
+	/**
+	 * Borra las lineas de un pedido (antes de borrar el pedido, en la misma transaccion).
+	 */
+	@Modifying
+	@Query("DELETE FROM OrderItem i WHERE i.orderId = :orderId")
+	int deleteByOrderId(@Param("orderId") Long orderId);
+}
@@ -0,0 +1,13 @@
+package com.example.springbackend.repository;
+
+/**
+ * Interface projection with the columns used by the facet index
+ * (Spring Data selects only these columns).
+ */
+public interface ProductFacetView {
+    Long getId();
+    Long getCategoryId();
+    Integer getPrice();
+    Integer getStock();
+    Long getUserId();
+}
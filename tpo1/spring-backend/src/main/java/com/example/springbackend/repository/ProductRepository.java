@@ -1,13 +1,113 @@
 package com.example.springbackend.repository;
 
+import com.example.springbackend.dto.ProductDTO;
 import com.example.springbackend.model.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
-    List<Product> findByCategory(String category);
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+        ProductRepositoryCustom {
+    List<Product> findByCategoryId(Long categoryId);
     List<Product> findByUserId(Long userId);
+
+    long countByCategoryId(Long categoryId);
+    long countByUserId(Long userId);
+
+    /*
+     * Keyset (seek) pagination ordered by (createdAt DESC, id DESC).
+     * The Pageable is always page 0, so only a LIMIT is emitted (never OFFSET).
+     * Backed by the (created_at, id), (category_id, created_at, id) and
+     * (user_id, created_at, id) indexes declared on Product.
+     */
+    List<Product> findAllByOrderByCreatedAtDescIdDesc(Pageable pageable);
+
+    @Query("SELECT p FROM Product p WHERE p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id) "
+            + "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Product> findPageAfter(@Param("createdAt") Instant createdAt, @Param("id") Long id, Pageable pageable);
+
+    List<Product> findByCategoryIdOrderByCreatedAtDescIdDesc(Long categoryId, Pageable pageable);
+
+    @Query("SELECT p FROM Product p WHERE p.categoryId = :categoryId "
+            + "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) "
+            + "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Product> findPageByCategoryIdAfter(@Param("categoryId") Long categoryId,
+            @Param("createdAt") Instant createdAt, @Param("id") Long id, Pageable pageable);
+
+    List<Product> findByUserIdOrderByCreatedAtDescIdDesc(Long userId, Pageable pageable);
+
+    @Query("SELECT p FROM Product p WHERE p.userId = :userId "
+            + "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) "
+            + "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Product> findPageByUserIdAfter(@Param("userId") Long userId, @Param("createdAt") Instant createdAt,
+            @Param("id") Long id, Pageable pageable);
+
+    // In-memory index rebuilds (search, facets): only the projected columns, paged by id
+    <T> List<T> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable, Class<T> type);
+
+    // Image migration: rows that still hold an inline base64 image (data URI)
+    @Query("SELECT p.id FROM Product p WHERE p.image LIKE 'data:%'")
+    List<Long> findIdsWithInlineImage();
+
+    @Modifying
+    @Query("UPDATE Product p SET p.image = :image, p.version = p.version + 1 WHERE p.id = :id")
+    int updateImage(@Param("id") Long id, @Param("image") String image);
+
+    // Targeted reads/writes for PATCH: no entity (and no persistence context) is involved
+    // The category name comes from the same query (join on the primary key of categories)
+    @Query("SELECT new com.example.springbackend.dto.ProductDTO(p.id, p.name, p.price, c.name, p.categoryId, "
+            + "p.description, p.image, p.stock, p.createdAt, p.userId, p.version) "
+            + "FROM Product p LEFT JOIN Category c ON c.id = p.categoryId WHERE p.id = :id")
+    Optional<ProductDTO> findDtoById(@Param("id") Long id);
+
+    @Query("SELECT new com.example.springbackend.dto.ProductDTO(p.id, p.name, p.price, c.name, p.categoryId, "
+            + "p.description, p.image, p.stock, p.createdAt, p.userId, p.version) "
+            + "FROM Product p LEFT JOIN Category c ON c.id = p.categoryId WHERE p.id IN :ids")
+    List<ProductDTO> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Conditional decrement: matches 0 rows when the result would go below zero
+    // (or when the stock is memory-backed, see InventoryEngine)
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock + :delta, p.version = p.version + 1 "
+            + "WHERE p.id = :id AND p.stock + :delta >= 0 AND p.hot = false")
+    int addStock(@Param("id") Long id, @Param("delta") int delta);
+
+    // Same, only while the row still has the version the client saw (If-Match)
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock + :delta, p.version = p.version + 1 "
+            + "WHERE p.id = :id AND p.version = :version AND p.stock + :delta >= 0 AND p.hot = false")
+    int addStockIfVersion(@Param("id") Long id, @Param("delta") int delta, @Param("version") long version);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = :stock, p.version = p.version + 1 "
+            + "WHERE p.id = :id AND (:version IS NULL OR p.version = :version) AND p.hot = false")
+    int setStock(@Param("id") Long id, @Param("stock") int stock, @Param("version") Long version);
+
+    // PUT: every editable column in one UPDATE, only on the version that was read; the stock only while the
+    // row is DB-backed (a product promoted meanwhile keeps the stock InventoryEngine loaded)
+    @Modifying
+    @Query("UPDATE Product p SET p.name = :name, p.price = :price, p.categoryId = :categoryId, "
+            + "p.description = :description, p.image = :image, "
+            + "p.stock = CASE WHEN p.hot = false THEN :stock ELSE p.stock END, p.version = p.version + 1 "
+            + "WHERE p.id = :id AND p.version = :version")
+    int updateDetails(@Param("id") Long id, @Param("version") long version, @Param("name") String name,
+            @Param("price") Integer price, @Param("categoryId") Long categoryId,
+            @Param("description") String description, @Param("image") String image, @Param("stock") Integer stock);
+
+    // Inventory engine: memory-backed ("hot") products
+    <T> List<T> findByHotTrue(Class<T> type);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.hot = :hot, p.version = p.version + 1 WHERE p.id = :id")
+    int updateHot(@Param("id") Long id, @Param("hot") boolean hot);
 }
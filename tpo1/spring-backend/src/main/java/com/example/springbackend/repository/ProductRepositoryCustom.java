@@ -0,0 +1,19 @@
+package com.example.springbackend.repository;
+
+import com.example.springbackend.model.Product;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Query methods of ProductRepository that Spring Data cannot derive (implemented in ProductRepositoryImpl)
+ */
+public interface ProductRepositoryCustom {
+
+    /**
+     * SELECT ... WHERE spec ORDER BY sort LIMIT limit.
+     * Unlike JpaSpecificationExecutor.findAll(spec, pageable) no COUNT query is issued.
+     */
+    List<Product> findWindow(Specification<Product> spec, Sort sort, int limit);
+}
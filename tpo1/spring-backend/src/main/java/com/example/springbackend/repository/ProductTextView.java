@@ -0,0 +1,12 @@
+package com.example.springbackend.repository;
+
+/**
+ * Interface projection with the text columns used by the search index
+ * (Spring Data selects only these columns).
+ */
+public interface ProductTextView {
+    Long getId();
+    String getName();
+    String getDescription();
+    Long getCategoryId();
+}
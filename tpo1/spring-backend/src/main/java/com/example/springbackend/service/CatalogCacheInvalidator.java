@@ -0,0 +1,62 @@
+package com.example.springbackend.service;
+
+import com.example.springbackend.config.CacheConfig;
+import com.example.springbackend.dto.ProductDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts exactly the cache entries affected by a committed write:
+ * the product itself and the category listings it left and/or joined
+ * (and, on a category rename or delete, every cached product that shows its name).
+ * Runs after commit so a concurrent read cannot re-cache the old row, and before
+ * CatalogVersions bumps the ETag versions.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogCacheInvalidator {
+
+    private final CacheManager cacheManager;
+    private final CategoryLookup categoryLookup;
+
+    @Order(0)
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        evict(CacheConfig.PRODUCT_BY_ID, event.productId());
+        evictCategoryListing(event.previous());
+        evictCategoryListing(event.current());
+    }
+
+    @Order(0)
+    @TransactionalEventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        evict(CacheConfig.CATEGORY_BY_ID, event.categoryId());
+        clear(CacheConfig.CATEGORIES);
+        if (event.nameChanged()) categoryLookup.evict(event.categoryId());
+        if (event.productsAffected()) {
+            // cached products and listings embed the old name (renames are rare: drop them all)
+            clear(CacheConfig.PRODUCT_BY_ID);
+            clear(CacheConfig.PRODUCTS_BY_CATEGORY);
+        }
+    }
+
+    private void evictCategoryListing(ProductDTO product) {
+        if (product != null && product.getCategory() != null) {
+            evict(CacheConfig.PRODUCTS_BY_CATEGORY, product.getCategory());
+        }
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) cache.clear();
+    }
+
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null && key != null) cache.evict(key);
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.springbackend.service;
+
+import com.example.springbackend.config.ConcurrencyLimitingDataSource;
+import com.example.springbackend.dto.OrderDTO;
+import com.example.springbackend.dto.ProductDTO;
+import com.example.springbackend.exception.BadRequestException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Catalog Stream Service
+ * Writes whole tables to a response as JSON straight from a forward-only JDBC cursor.
+ * Rows are read fetchSize at a time and each one is serialized and dropped right away:
+ * no entities, no persistence context and no intermediate lists, so memory stays constant
+ * regardless of the number of rows.
+ * Exports (NDJSON / CSV) use the same cursor; with since= they only read rows created
+ * from that instant on, walking the (created_at, id) index.
+ * The cursor connections count against the stream permits of ConcurrencyLimitingDataSource (virtual threads).
+ * (MySQL only honours the fetch size with useCursorFetch=true in the JDBC URL.)
+ */
+@Service
+public class CatalogStreamService {
+
+    static final String PRODUCT_COLUMNS =
+            "id, name, price, category_id, description, image, stock, created_at, user_id, version";
+    static final String ORDER_COLUMNS = "id, user_id, created_at, total, status, version";
+
+    static final List<String> PRODUCT_CSV_HEADER = List.of(
+            "id", "name", "price", "category", "categoryId", "description", "image", "stock", "createdAt", "userId",
+            "version");
+    static final List<String> ORDER_CSV_HEADER = List.of("id", "userId", "createdAt", "total", "status", "version");
+
+    /**
+     * Formatos de exportacion soportados por /products/export y /orders/export
+     */
+    public enum ExportFormat {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        ExportFormat(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static ExportFormat parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Unknown export format: " + value + " (use ndjson or csv)");
+            }
+        }
+    }
+
+    private final JdbcTemplate cursorTemplate;
+    private final ObjectMapper objectMapper;
+    private final ImageStorageService imageStorageService;
+    private final CategoryLookup categoryLookup;
+
+    public CatalogStreamService(DataSource dataSource, ObjectMapper objectMapper,
+            ImageStorageService imageStorageService, CategoryLookup categoryLookup,
+            @Value("${catalog.stream.fetch-size:500}") int fetchSize) {
+        this.cursorTemplate = new JdbcTemplate(dataSource);
+        this.cursorTemplate.setFetchSize(fetchSize);
+        this.objectMapper = objectMapper;
+        this.imageStorageService = imageStorageService;
+        this.categoryLookup = categoryLookup;
+    }
+
+    /**
+     * Writes every product as a JSON array (same shape as GET /products)
+     */
+    public void writeProductsJson(OutputStream out) throws IOException {
+        writeJsonArray(out, "SELECT " + PRODUCT_COLUMNS + " FROM products ORDER BY id", productRowMapper());
+    }
+
+    /**
+     * Writes every order as a JSON array (same shape as GET /orders)
+     */
+    public void writeOrdersJson(OutputStream out) throws IOException {
+        writeJsonArray(out, "SELECT " + ORDER_COLUMNS + " FROM orders ORDER BY id", ORDER_ROW_MAPPER);
+    }
+
+    /**
+     * Exports products (optionally only those created at or after since) as NDJSON or CSV
+     */
+    public void exportProducts(OutputStream out, ExportFormat format, Instant since) throws IOException {
+        export(out, format, "products", PRODUCT_COLUMNS, since, productRowMapper(), PRODUCT_CSV_HEADER,
+                p -> Arrays.asList(p.getId(), p.getName(), p.getPrice(), p.getCategory(), p.getCategoryId(),
+                        p.getDescription(), p.getImage(), p.getStock(), p.getCreatedAt(), p.getUserId(),
+                        p.getVersion()));
+    }
+
+    /**
+     * Exports orders (optionally only those created at or after since) as NDJSON or CSV
+     */
+    public void exportOrders(OutputStream out, ExportFormat format, Instant since) throws IOException {
+        export(out, format, "orders", ORDER_COLUMNS, since, ORDER_ROW_MAPPER, ORDER_CSV_HEADER,
+                o -> Arrays.asList(o.getId(), o.getUserId(), o.getCreatedAt(), o.getTotal(), o.getStatus(), o.getVersion()));
+    }
+
+    /**
+     * Parses since= as an ISO instant (2025-01-31T00:00:00Z) or a plain date (2025-01-31, UTC midnight)
+     */
+    public static Instant parseSince(String since) {
+        if (since == null || since.isBlank()) return null;
+        try {
+            return since.contains("T") ? Instant.parse(since)
+                    : LocalDate.parse(since).atStartOfDay(ZoneOffset.UTC).toInstant();
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Invalid since: " + since);
+        }
+    }
+
+    private <T> void export(OutputStream out, ExportFormat format, String table, String columns, Instant since,
+            RowMapper<T> rowMapper, List<String> csvHeader, Function<T, List<?>> csvValues) throws IOException {
+        String sql = "SELECT " + columns + " FROM " + table
+                + (since != null ? " WHERE created_at >= ? ORDER BY created_at, id" : " ORDER BY id");
+        Object[] args = since != null ? new Object[] { Timestamp.from(since) } : new Object[0];
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        ObjectWriter jsonWriter = objectMapper.writer();
+        if (format == ExportFormat.CSV) {
+            writeCsvLine(writer, csvHeader);
+        }
+        RowCallbackHandler writeRow = rs -> {
+            T row = rowMapper.mapRow(rs, rs.getRow());
+            try {
+                if (format == ExportFormat.NDJSON) {
+                    writer.write(jsonWriter.writeValueAsString(row));
+                    writer.write('\n');
+                } else {
+                    writeCsvLine(writer, csvValues.apply(row));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e); // client went away: abort the cursor
+            }
+        };
+        try {
+            ConcurrencyLimitingDataSource.streaming(() -> cursorTemplate.query(sql, writeRow, args));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private static void writeCsvLine(Writer writer, List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) writer.write(',');
+            Object value = values.get(i);
+            if (value == null) continue;
+            String text = value.toString();
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(text.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(text);
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private <T> void writeJsonArray(OutputStream out, String sql, RowMapper<T> rowMapper) throws IOException {
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.writeStartArray();
+            RowCallbackHandler writeRow = rs -> {
+                try {
+                    json.writeObject(rowMapper.mapRow(rs, rs.getRow()));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e); // client went away: abort the cursor
+                }
+            };
+            ConcurrencyLimitingDataSource.streaming(() -> cursorTemplate.query(sql, writeRow));
+            json.writeEndArray();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // the category name comes from CategoryLookup (in memory), so the cursor query needs no join
+    RowMapper<ProductDTO> productRowMapper() {
+        return (rs, rowNum) -> {
+            Long categoryId = rs.getObject("category_id", Long.class);
+            return new ProductDTO(
+                    rs.getLong("id"),
+                    rs.getString("name"),
+                    rs.getObject("price", Integer.class),
+                    categoryLookup.nameOf(categoryId),
+                    categoryId,
+                    rs.getString("description"),
+                    imageStorageService.toPublicUrl(rs.getString("image")),
+                    rs.getObject("stock", Integer.class),
+                    instant(rs, "created_at"),
+                    rs.getObject("user_id", Long.class),
+                    rs.getObject("version", Long.class));
+        };
+    }
+
+    static final RowMapper<OrderDTO> ORDER_ROW_MAPPER = (rs, rowNum) -> new OrderDTO(
+            rs.getLong("id"),
+            rs.getObject("user_id", Long.class),
+            instant(rs, "created_at"),
+            rs.getObject("total", Double.class),
+            rs.getString("status"),
+            rs.getObject("version", Long.class));
+
+    static Instant instant(ResultSet rs, String column) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp(column);
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.springbackend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Catalog Versions
+ * Version counters used to build the collection ETags without querying the catalog: one for products and one
+ * for categories (GET /categories/{id} uses the categories one too).
+ * (A single product uses its @Version column as ETag instead, see ProductController.getById.)
+ * - the counters live in catalog_versions, so every instance answers with the same tag for the same state;
+ * - committed writes are counted here first: the tag of this instance changes right away, and every
+ *   catalog.versions.sync-interval-ms the writes are added to catalog_versions (one short UPDATE per counter,
+ *   not one per write and not inside the write transaction) and every counter is read back;
+ * - other instances therefore stop answering 304 for an outdated tag within two sync intervals.
+ * A counter row starts at the current time in milliseconds and every startup bumps it, so a recreated
+ * database or changes made while no instance ran never bring back a tag issued before.
+ *
+ * Bumps run after CatalogCacheInvalidator (see @Order): otherwise a read between the bump and
+ * the eviction could pair a new ETag with a stale cached body.
+ */
+@Component
+public class CatalogVersions implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogVersions.class);
+
+    static final String PRODUCTS = "products";
+    static final String CATEGORIES = "categories";
+
+    static final String BUMP_SQL = "INSERT INTO catalog_versions (name, version) VALUES (?, ?) "
+            + "ON DUPLICATE KEY UPDATE version = version + 1";
+    static final String READ_SQL = "SELECT name, version FROM catalog_versions";
+
+    // per process: tells apart the tags of writes this instance has not synced yet
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final JdbcTemplate jdbcTemplate;
+    // counters as last read from catalog_versions
+    private final Map<String, Long> shared = new ConcurrentHashMap<>();
+    // committed writes of this instance not yet added to catalog_versions
+    private final Map<String, Long> unsynced = new ConcurrentHashMap<>();
+    // one sync at a time (scheduler and startup)
+    private final ReentrantLock syncLock = new ReentrantLock();
+
+    public CatalogVersions(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Before the web server starts: bump both counters (changes made while no instance ran) and read them
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        unsynced.merge(PRODUCTS, 1L, Long::sum);
+        unsynced.merge(CATEGORIES, 1L, Long::sum);
+        sync();
+    }
+
+    public String productsEtag() {
+        return etag(PRODUCTS, PRODUCTS);
+    }
+
+    public String categoriesEtag() {
+        return etag(CATEGORIES, CATEGORIES);
+    }
+
+    public String categoryEtag(Long id) {
+        return etag("category-" + id, CATEGORIES);
+    }
+
+    @Order(100)
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        unsynced.merge(PRODUCTS, 1L, Long::sum);
+    }
+
+    @Order(100)
+    @TransactionalEventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        unsynced.merge(CATEGORIES, 1L, Long::sum);
+        // product listings show the category name
+        if (event.productsAffected()) unsynced.merge(PRODUCTS, 1L, Long::sum);
+    }
+
+    /**
+     * Adds the local writes to catalog_versions and reads every counter back. The local writes are only
+     * forgotten once the new counters are read, so the tag never goes back to a value issued before them.
+     */
+    @Scheduled(fixedDelayString = "${catalog.versions.sync-interval-ms:1000}")
+    public void sync() {
+        syncLock.lock();
+        try {
+            Map<String, Long> pending = new TreeMap<>(unsynced); // sorted: same row lock order on every instance
+            if (write(pending)) {
+                pending.forEach((name, count) ->
+                        unsynced.computeIfPresent(name, (key, value) -> value - count == 0 ? null : value - count));
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private boolean write(Map<String, Long> pending) {
+        try {
+            long initial = System.currentTimeMillis();
+            List<String> names = List.copyOf(pending.keySet());
+            if (!names.isEmpty()) {
+                jdbcTemplate.batchUpdate(BUMP_SQL, names, names.size(), (ps, name) -> {
+                    ps.setString(1, name);
+                    ps.setLong(2, initial);
+                });
+            }
+            jdbcTemplate.query(READ_SQL, rs -> {
+                shared.put(rs.getString("name"), rs.getLong("version"));
+            });
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Catalog version sync failed, ETags stay local until the next interval: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private String etag(String resource, String counter) {
+        Long local = unsynced.get(counter);
+        return "\"" + resource + "-" + shared.getOrDefault(counter, 0L)
+                + (local == null ? "" : "-" + epoch + "-" + local) + "\"";
+    }
+}
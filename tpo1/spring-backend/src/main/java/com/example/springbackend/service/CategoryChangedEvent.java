@@ -0,0 +1,15 @@
+package com.example.springbackend.service;
+
+/**
+ * Published by CategoryService (and background jobs) whenever a category row changes.
+ * nameChanged is true on rename and delete: the id/name map of CategoryLookup must be dropped.
+ * productsAffected is true when products showing the old name exist too, so cached products and the
+ * search / facet indexes need refreshing (a delete never has any: it is refused while products remain).
+ * Listeners use @TransactionalEventListener so they only see committed changes.
+ */
+public record CategoryChangedEvent(Long categoryId, boolean nameChanged, boolean productsAffected) {
+
+    public CategoryChangedEvent(Long categoryId) {
+        this(categoryId, false, false);
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.springbackend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Category Count Aggregator
+ * Keeps categories.product_count up to date without COUNT(*) queries:
+ * - every committed product create / delete / category change adds +1 / -1 to an in-memory delta
+ *   per category id, so bursts of writes on the same category coalesce into one number;
+ * - every catalog.category-counts.flush-interval-ms the non-zero deltas are written as one JDBC batch
+ *   of atomic UPDATE categories SET product_count = product_count + ? statements;
+ * - the reconciler (at startup and every catalog.category-counts.reconcile-interval-ms) recomputes the
+ *   real counts with a correlated COUNT and fixes the rows that drifted (crash before a flush, writes
+ *   made outside the application, ...).
+ * A delta only reaches the map after its transaction committed, so the COUNT may already include a change
+ * whose delta is still on its way. The reconciler therefore drains the pending deltas first (their commits
+ * precede the COUNT: the absolute value replaces them) and leaves alone the categories with a change between
+ * its commit and its delta at any point of the COUNT; their deltas are flushed as usual.
+ */
+@Component
+public class CategoryCountAggregator {
+
+    private static final Logger log = LoggerFactory.getLogger(CategoryCountAggregator.class);
+
+    static final String INCREMENT_SQL = "UPDATE categories SET product_count = product_count + ? WHERE id = ?";
+    // counted on the (category_id, ...) indexes of products
+    static final String ACTUAL_COUNTS_SQL = "SELECT c.id, c.product_count, "
+            + "(SELECT COUNT(*) FROM products p WHERE p.category_id = c.id) AS actual FROM categories c";
+    static final String SET_COUNT_SQL = "UPDATE categories SET product_count = ? WHERE id = ?";
+
+    // non-zero deltas only: an entry that sums to zero is removed
+    private final Map<Long, Long> deltas = new ConcurrentHashMap<>();
+    // changes of each category between BEFORE_COMMIT and their delta (or rollback)
+    private final Map<Long, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+    // categories changed while the reconciler counts (null when it is not counting)
+    private volatile Set<Long> changedWhileCounting;
+    // flush and reconcile never overlap: reconcile writes absolute values
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CategoryCountAggregator(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void beforeProductCommit(ProductChangedEvent event) {
+        categoriesOf(event).forEach(id -> {
+            inFlight.computeIfAbsent(id, key -> new AtomicInteger()).incrementAndGet();
+            markChanged(id);
+        });
+    }
+
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        Long before = event.previous() != null ? event.previous().getCategoryId() : null;
+        Long after = event.current() != null ? event.current().getCategoryId() : null;
+        if (Objects.equals(before, after)) return; // stock / price / ... changes
+        if (before != null) add(before, -1);
+        if (after != null) add(after, 1);
+        release(event);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void onProductRolledBack(ProductChangedEvent event) {
+        release(event);
+    }
+
+    /**
+     * Categories whose count the change moves (none for stock / price / ... changes)
+     */
+    private static List<Long> categoriesOf(ProductChangedEvent event) {
+        Long before = event.previous() != null ? event.previous().getCategoryId() : null;
+        Long after = event.current() != null ? event.current().getCategoryId() : null;
+        if (Objects.equals(before, after)) return List.of();
+        List<Long> ids = new ArrayList<>(2);
+        if (before != null) ids.add(before);
+        if (after != null) ids.add(after);
+        return ids;
+    }
+
+    private void release(ProductChangedEvent event) {
+        categoriesOf(event).forEach(id -> {
+            markChanged(id);
+            inFlight.computeIfPresent(id, (key, count) -> count.decrementAndGet() == 0 ? null : count);
+        });
+    }
+
+    private void markChanged(Long categoryId) {
+        Set<Long> changed = changedWhileCounting;
+        if (changed != null) changed.add(categoryId);
+    }
+
+    private void add(Long categoryId, long delta) {
+        if (delta != 0) deltas.merge(categoryId, delta, (a, b) -> a + b == 0 ? null : a + b);
+    }
+
+    /**
+     * Removes and returns the pending deltas, sorted by id (same row lock order on every flush)
+     */
+    private Map<Long, Long> drain() {
+        Map<Long, Long> pending = new TreeMap<>();
+        for (Long id : deltas.keySet()) {
+            Long value = deltas.remove(id);
+            if (value != null) pending.put(id, value);
+        }
+        return pending;
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.category-counts.flush-interval-ms:1000}")
+    public void flush() {
+        if (deltas.isEmpty()) return;
+        lock.lock();
+        try {
+            Map<Long, Long> pending = drain();
+            if (pending.isEmpty()) return;
+            try {
+                List<Map.Entry<Long, Long>> rows = new ArrayList<>(pending.entrySet());
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.batchUpdate(INCREMENT_SQL, rows, rows.size(), (ps, row) -> {
+                        ps.setLong(1, row.getValue());
+                        ps.setLong(2, row.getKey());
+                    });
+                    for (Long id : pending.keySet()) {
+                        eventPublisher.publishEvent(new CategoryChangedEvent(id));
+                    }
+                });
+            } catch (RuntimeException e) {
+                log.warn("Category count flush failed, retrying on the next interval", e);
+                pending.forEach(this::add);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+
+    /**
+     * Recomputes every count and rewrites only the categories that drifted
+     */
+    @Scheduled(initialDelayString = "${catalog.category-counts.reconcile-interval-ms:600000}",
+            fixedDelayString = "${catalog.category-counts.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        flush();
+        lock.lock();
+        Set<Long> uncertain = ConcurrentHashMap.newKeySet();
+        Map<Long, Long> drained = Map.of();
+        try {
+            changedWhileCounting = uncertain;
+            uncertain.addAll(inFlight.keySet());
+            // committed before the COUNT starts: the COUNT includes them, the stored count does not
+            drained = drain();
+            int corrected = transactionTemplate.execute(status -> {
+                List<long[]> actual = new ArrayList<>();
+                jdbcTemplate.query(ACTUAL_COUNTS_SQL, rs -> {
+                    actual.add(new long[] { rs.getLong("id"), rs.getLong("product_count"), rs.getLong("actual") });
+                });
+                changedWhileCounting = null;
+                List<long[]> drifted = new ArrayList<>();
+                for (long[] row : actual) {
+                    if (row[1] != row[2] && !uncertain.contains(row[0])) drifted.add(new long[] { row[0], row[2] });
+                }
+                if (drifted.isEmpty()) return 0;
+                jdbcTemplate.batchUpdate(SET_COUNT_SQL, drifted, drifted.size(), (ps, row) -> {
+                    ps.setLong(1, row[1]);
+                    ps.setLong(2, row[0]);
+                });
+                for (long[] row : drifted) {
+                    eventPublisher.publishEvent(new CategoryChangedEvent(row[0]));
+                }
+                return drifted.size();
+            });
+            // the categories left alone still need their deltas
+            drained.forEach((id, delta) -> {
+                if (uncertain.contains(id)) add(id, delta);
+            });
+            if (corrected > 0) {
+                log.info("Category count reconciler corrected {} categories", corrected);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Category count reconciliation failed", e);
+            drained.forEach(this::add);
+        } finally {
+            changedWhileCounting = null;
+            lock.unlock();
+        }
+    }
+}
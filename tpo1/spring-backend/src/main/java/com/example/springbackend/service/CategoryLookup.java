@@ -0,0 +1,121 @@
+package com.example.springbackend.service;
+
+import com.example.springbackend.exception.BadRequestException;
+import com.example.springbackend.model.Category;
+import com.example.springbackend.repository.CategoryRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory id <-> name map of the categories (a few dozen rows).
+ * Products store category_id; responses show the name and ?category= filters take the name,
+ * so both directions are resolved here instead of joining or querying per product:
+ * - the first use loads every category in one query;
+ * - ids missing from the map (categories created since) are loaded together, one query per batch;
+ * - CatalogCacheInvalidator calls evict after a committed rename or delete.
+ */
+@Component
+public class CategoryLookup {
+
+    private final CategoryRepository categoryRepository;
+    private final Map<Long, String> namesById = new ConcurrentHashMap<>();
+    private final Map<String, Long> idsByName = new ConcurrentHashMap<>();
+    // a lock rather than synchronized: the first load runs a query, which would pin a virtual thread
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private volatile boolean loaded;
+
+    public CategoryLookup(CategoryRepository categoryRepository) {
+        this.categoryRepository = categoryRepository;
+    }
+
+    /**
+     * Name of the category, or null for a null / unknown id
+     */
+    public String nameOf(Long id) {
+        if (id == null) return null;
+        ensureLoaded();
+        String name = namesById.get(id);
+        if (name == null) {
+            preload(List.of(id));
+            name = namesById.get(id);
+        }
+        return name;
+    }
+
+    /**
+     * Id of the category with that exact name, or null when there is none
+     */
+    public Long idOf(String name) {
+        if (name == null) return null;
+        ensureLoaded();
+        Long id = idsByName.get(name);
+        if (id == null) {
+            Category category = categoryRepository.findByName(name);
+            if (category != null) {
+                put(category);
+                id = category.getId();
+            }
+        }
+        return id;
+    }
+
+    /**
+     * Loads the given ids that are not in the map yet with a single query
+     * (call before mapping a list of products so misses are not fetched one by one)
+     */
+    public void preload(Collection<Long> ids) {
+        ensureLoaded();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            if (id != null && !namesById.containsKey(id) && !missing.contains(id)) missing.add(id);
+        }
+        if (!missing.isEmpty()) {
+            categoryRepository.findAllById(missing).forEach(this::put);
+        }
+    }
+
+    /**
+     * Category id for a product write. The name wins when both are given: forms edit the name and may
+     * send back the categoryId of the product they loaded.
+     * @throws BadRequestException when the name or id does not match an existing category
+     */
+    public Long resolve(Long categoryId, String categoryName) {
+        if (categoryName != null && !categoryName.isBlank()) {
+            Long id = idOf(categoryName.trim());
+            if (id == null) throw new BadRequestException("Unknown category: " + categoryName);
+            return id;
+        }
+        if (categoryId != null && nameOf(categoryId) == null) {
+            throw new BadRequestException("Unknown category id: " + categoryId);
+        }
+        return categoryId;
+    }
+
+    public void evict(Long id) {
+        String name = namesById.remove(id);
+        if (name != null) idsByName.remove(name, id);
+    }
+
+    private void ensureLoaded() {
+        if (loaded) return;
+        loadLock.lock();
+        try {
+            if (loaded) return;
+            categoryRepository.findAll().forEach(this::put);
+            loaded = true;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private void put(Category category) {
+        namesById.put(category.getId(), category.getName());
+        idsByName.put(category.getName(), category.getId());
+    }
+}
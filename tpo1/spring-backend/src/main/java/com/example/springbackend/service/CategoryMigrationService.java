@@ -0,0 +1,103 @@
+package com.example.springbackend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Category Migration Service
+ * One-off job that links products of databases created before products.category_id existed from the
+ * free-text products.category column to the foreign key:
+ * 1. every category name used by a product but missing from categories is created;
+ * 2. category_id is filled from the name, in short transactions of id ranges.
+ * The job never changes the schema: products.category (and its indexes) is only dropped by the V4 Flyway
+ * migration (V4__Upgrade_baseline_schema, which links the ids first), or by hand on databases without Flyway.
+ * Idempotent: does nothing when products.category does not exist. Off by default
+ * (catalog.categories.migrate-on-startup=true for the databases Flyway does not manage).
+ * Runs once every singleton exists and before the web server starts, so no request sees products without
+ * their category_id, and the startup listeners (search / facet index rebuilds, category count reconciliation)
+ * see the ids.
+ */
+@Service
+@ConditionalOnProperty(name = "catalog.categories.migrate-on-startup", havingValue = "true")
+public class CategoryMigrationService implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(CategoryMigrationService.class);
+
+    private static final int ID_RANGE = 5000;
+
+    static final String CREATE_MISSING_SQL = "INSERT INTO categories (name, product_count) "
+            + "SELECT DISTINCT p.category, 0 FROM products p WHERE p.category IS NOT NULL AND p.category <> '' "
+            + "AND NOT EXISTS (SELECT 1 FROM categories c WHERE c.name = p.category)";
+    static final String FILL_IDS_SQL = "UPDATE products p JOIN categories c ON c.name = p.category "
+            + "SET p.category_id = c.id WHERE p.category_id IS NULL AND p.id BETWEEN ? AND ?";
+    static final String UNMAPPED_SQL = "SELECT COUNT(*) FROM products "
+            + "WHERE category IS NOT NULL AND category <> '' AND category_id IS NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CategoryMigrationService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        linkCategoryIds(jdbcTemplate);
+    }
+
+    /**
+     * Steps 1-2 on the given (auto-commit) connection; each range UPDATE commits on its own
+     */
+    public static void linkCategoryIds(JdbcTemplate jdbcTemplate) {
+        Boolean legacy = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                SchemaMetadata.hasColumn(connection, "products", "category"));
+        if (!Boolean.TRUE.equals(legacy)) return;
+
+        int created = jdbcTemplate.update(CREATE_MISSING_SQL);
+        if (created > 0) {
+            log.info("Created {} categories that were only referenced by product names", created);
+        }
+
+        Map<String, Object> bounds = jdbcTemplate.queryForMap("SELECT MIN(id) AS lo, MAX(id) AS hi FROM products");
+        long migrated = 0;
+        if (bounds.get("lo") != null) {
+            long lo = ((Number) bounds.get("lo")).longValue();
+            long hi = ((Number) bounds.get("hi")).longValue();
+            for (long start = lo; start <= hi; start += ID_RANGE) {
+                long from = start;
+                long to = start + ID_RANGE - 1;
+                migrated += jdbcTemplate.update(FILL_IDS_SQL, from, to);
+            }
+        }
+        log.info("Linked {} products to their category id", migrated);
+
+    }
+
+    /**
+     * Drops products.category and its indexes once every named product has its category_id (V4 only)
+     */
+    public static void dropLegacyColumn(JdbcTemplate jdbcTemplate) {
+        Boolean legacy = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                SchemaMetadata.hasColumn(connection, "products", "category"));
+        if (!Boolean.TRUE.equals(legacy)) return;
+        Integer unmapped = jdbcTemplate.queryForObject(UNMAPPED_SQL, Integer.class);
+        if (unmapped != null && unmapped > 0) {
+            log.warn("{} products still have a category name without an id; keeping products.category", unmapped);
+            return;
+        }
+        Set<String> indexes = jdbcTemplate.execute((ConnectionCallback<Set<String>>) connection ->
+                SchemaMetadata.indexesOn(connection, "products", "category"));
+        for (String index : indexes) {
+            jdbcTemplate.execute("ALTER TABLE products DROP INDEX `" + index + "`");
+        }
+        jdbcTemplate.execute("ALTER TABLE products DROP COLUMN category");
+        log.info("Dropped products.category and {} indexes on it", indexes.size());
+    }
+}
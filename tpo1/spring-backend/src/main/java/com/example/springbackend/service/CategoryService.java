@@ -1,9 +1,14 @@
 package com.example.springbackend.service;
 
+import com.example.springbackend.config.CacheConfig;
 import com.example.springbackend.model.Category;
 import com.example.springbackend.dto.CategoryDTO;
+import com.example.springbackend.exception.ConflictException;
 import com.example.springbackend.repository.CategoryRepository;
+import com.example.springbackend.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,6 +26,8 @@ import java.util.Optional;
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductRepository productRepository;
 
     // Entity helpers
     private List<Category> findAllEntities() {
@@ -32,9 +39,8 @@ public class CategoryService {
     }
 
     private Category saveEntity(Category category) {
-        if (category.getProductCount() == null) {
-            category.setProductCount(0);
-        }
+        // productCount is maintained by CategoryCountAggregator; products can only point at an existing category
+        category.setProductCount(0);
         return categoryRepository.save(category);
     }
 
@@ -62,19 +68,25 @@ public class CategoryService {
     }
 
     // Public DTO-aware API used by controllers
+    // Reads are cached; writes publish CategoryChangedEvent and CatalogCacheInvalidator evicts after commit.
+    // Cached DTOs are shared by every caller: the controller answers with copies
+    @Cacheable(cacheNames = CacheConfig.CATEGORIES, key = "'all'")
+    @Transactional(readOnly = true)
     public List<CategoryDTO> findAll() {
         return findAllEntities().stream().map(this::toDto).toList();
     }
 
-    public ResponseEntity<CategoryDTO> findById(Long id) {
-        return findByIdEntity(id)
-                .map(cat -> ResponseEntity.ok(toDto(cat)))
-                .orElseGet(() -> ResponseEntity.notFound().build());
+    // an empty Optional is not cached
+    @Cacheable(cacheNames = CacheConfig.CATEGORY_BY_ID, key = "#id", unless = "#result == null")
+    @Transactional(readOnly = true)
+    public Optional<CategoryDTO> findById(Long id) {
+        return findByIdEntity(id).map(this::toDto);
     }
 
     public ResponseEntity<CategoryDTO> create(CategoryDTO dto) {
         Category entity = fromDto(dto);
         Category saved = saveEntity(entity);
+        eventPublisher.publishEvent(new CategoryChangedEvent(saved.getId()));
         return ResponseEntity.created(java.net.URI.create("/categories/" + saved.getId())).body(toDto(saved));
     }
 
@@ -82,11 +94,15 @@ public class CategoryService {
         Category details = fromDto(dto);
         return categoryRepository.findById(id)
                 .map(cat -> {
+                    // productCount is not taken from the client (see CategoryCountAggregator);
+                    // products reference the id, so a rename is a single-row update
+                    boolean renamed = !cat.getName().equals(details.getName());
                     cat.setName(details.getName());
                     cat.setDescription(details.getDescription());
                     cat.setIcon(details.getIcon());
-                    cat.setProductCount(details.getProductCount());
                     Category saved = categoryRepository.save(cat);
+                    boolean productsAffected = renamed && productRepository.countByCategoryId(id) > 0;
+                    eventPublisher.publishEvent(new CategoryChangedEvent(saved.getId(), renamed, productsAffected));
                     return ResponseEntity.ok(toDto(saved));
                 })
                 .orElseGet(() -> create(dto));
@@ -94,7 +110,14 @@ public class CategoryService {
 
     public ResponseEntity<Void> deleteResponse(Long id) {
         if (!categoryRepository.existsById(id)) return ResponseEntity.notFound().build();
+        // products.category_id is a foreign key: move or delete the products first
+        long products = productRepository.countByCategoryId(id);
+        if (products > 0) {
+            throw new ConflictException("Category " + id + " still has " + products + " products");
+        }
         categoryRepository.deleteById(id);
+        // no product referenced it: the indexes and cached products have nothing to refresh
+        eventPublisher.publishEvent(new CategoryChangedEvent(id, true, false));
         return ResponseEntity.noContent().build();
     }
 
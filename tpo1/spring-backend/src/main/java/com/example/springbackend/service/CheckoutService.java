@@ -0,0 +1,152 @@
+package com.example.springbackend.service;
+
+import com.example.springbackend.dto.CheckoutFailureDTO;
+import com.example.springbackend.dto.CheckoutRequestDTO;
+import com.example.springbackend.dto.CheckoutResultDTO;
+import com.example.springbackend.dto.OrderItemDTO;
+import com.example.springbackend.dto.ProductDTO;
+import com.example.springbackend.exception.CheckoutFailedException;
+import com.example.springbackend.mapping.OrderMapper;
+import com.example.springbackend.model.Order;
+import com.example.springbackend.repository.OrderRepository;
+import com.example.springbackend.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Checkout Service
+ * Turns a cart into an order in a single transaction:
+ * 1. one JDBC batch of conditional decrements (UPDATE ... WHERE stock >= ?), in product id order so
+ *    concurrent checkouts lock rows in the same order and cannot deadlock;
+ * 2. any line that matched no row fails the whole checkout (rollback, 409 with every failed line);
+ * 3. prices are read from the rows just locked, so the total is computed server-side;
+ * 4. the order and its line items are inserted.
+ * Memory-backed ("hot") products skip step 1: their units are reserved in InventoryEngine and
+ * committed or released when the transaction completes.
+ */
+@Service
+@RequiredArgsConstructor
+public class CheckoutService {
+
+    static final String DECREMENT_STOCK_SQL =
+            "UPDATE products SET stock = stock - ?, version = version + 1 WHERE id = ? AND stock >= ? AND hot = false";
+    static final String INSERT_ITEM_SQL =
+            "INSERT INTO order_items (order_id, product_id, quantity, unit_price) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductRepository productRepository;
+    private final OrderRepository orderRepository;
+    private final OrderMapper orderMapper;
+    private final ImageStorageService imageStorageService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InventoryEngine inventoryEngine;
+
+    @Transactional
+    public CheckoutResultDTO checkout(Long userId, List<CheckoutRequestDTO.Item> items) {
+        // duplicate lines of the same product are merged; TreeMap keeps them sorted by id
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (CheckoutRequestDTO.Item item : items) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        List<Map.Entry<Long, Integer>> lines = new ArrayList<>(quantities.entrySet());
+        List<CheckoutFailureDTO> failures = new ArrayList<>();
+
+        // hot products: reserve in memory; committed or released when this transaction ends
+        Map<Long, Integer> reserved = new LinkedHashMap<>();
+        List<Map.Entry<Long, Integer>> dbLines = new ArrayList<>(lines.size());
+        for (Map.Entry<Long, Integer> line : lines) {
+            switch (inventoryEngine.reserve(line.getKey(), line.getValue())) {
+                case RESERVED -> reserved.put(line.getKey(), line.getValue());
+                case NOT_HOT -> dbLines.add(line);
+                case INSUFFICIENT -> failures.add(new CheckoutFailureDTO(line.getKey(), line.getValue(),
+                        inventoryEngine.available(line.getKey()), "INSUFFICIENT_STOCK"));
+                case UNAVAILABLE -> failures.add(new CheckoutFailureDTO(line.getKey(), line.getValue(), null,
+                        "UNAVAILABLE"));
+            }
+        }
+        if (!reserved.isEmpty()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    reserved.forEach(status == STATUS_COMMITTED ? inventoryEngine::commit : inventoryEngine::release);
+                    // the sold units reach products.stock before the order is acknowledged
+                    if (status == STATUS_COMMITTED) inventoryEngine.flushCommitted();
+                }
+            });
+        }
+
+        int[] updated = dbLines.isEmpty() ? new int[0]
+                : jdbcTemplate.batchUpdate(DECREMENT_STOCK_SQL, dbLines, dbLines.size(), (ps, line) -> {
+                    ps.setInt(1, line.getValue());
+                    ps.setLong(2, line.getKey());
+                    ps.setInt(3, line.getValue());
+                })[0];
+
+        // the decremented rows stay locked until commit: these prices / stocks are the ones we sell at
+        Map<Long, ProductDTO> products = productRepository.findDtosByIdIn(quantities.keySet()).stream()
+                .collect(Collectors.toMap(ProductDTO::getId, Function.identity()));
+
+        for (int i = 0; i < dbLines.size(); i++) {
+            if (updated[i] != 0) continue;
+            Map.Entry<Long, Integer> line = dbLines.get(i);
+            ProductDTO product = products.get(line.getKey());
+            if (product == null) {
+                failures.add(new CheckoutFailureDTO(line.getKey(), line.getValue(), 0, "NOT_FOUND"));
+            } else if (product.getStock() != null && product.getStock() >= line.getValue()) {
+                // promoted to memory-backed stock while this checkout was running
+                failures.add(new CheckoutFailureDTO(line.getKey(), line.getValue(), null, "UNAVAILABLE"));
+            } else {
+                failures.add(new CheckoutFailureDTO(line.getKey(), line.getValue(), product.getStock(),
+                        "INSUFFICIENT_STOCK"));
+            }
+        }
+        if (!failures.isEmpty()) {
+            throw new CheckoutFailedException(failures); // rolls back the decrements that did apply
+        }
+
+        long total = 0; // in cents, like product prices
+        for (Map.Entry<Long, Integer> line : lines) {
+            total += (long) products.get(line.getKey()).getPrice() * line.getValue();
+        }
+        Order order = orderRepository.save(new Order(userId, (double) total, Order.COMPLETADO));
+
+        List<OrderItemDTO> orderItems = new ArrayList<>(lines.size());
+        for (Map.Entry<Long, Integer> line : lines) {
+            orderItems.add(new OrderItemDTO(order.getId(), line.getKey(), line.getValue(),
+                    products.get(line.getKey()).getPrice()));
+        }
+        jdbcTemplate.batchUpdate(INSERT_ITEM_SQL, orderItems, orderItems.size(), (ps, item) -> {
+            ps.setLong(1, item.getOrderId());
+            ps.setLong(2, item.getProductId());
+            ps.setInt(3, item.getQuantity());
+            ps.setInt(4, item.getUnitPrice());
+        });
+
+        Map<Long, Integer> remainingStock = new LinkedHashMap<>();
+        for (Map.Entry<Long, Integer> line : lines) {
+            ProductDTO current = products.get(line.getKey());
+            if (reserved.containsKey(line.getKey())) {
+                // memory-backed: products.stock changes on the next write-behind flush
+                remainingStock.put(current.getId(), inventoryEngine.available(current.getId()));
+                continue;
+            }
+            current.setImage(imageStorageService.toPublicUrl(current.getImage()));
+            eventPublisher.publishEvent(ProductChangedEvent.stockChanged(current, current.getStock() + line.getValue()));
+            remainingStock.put(current.getId(), current.getStock());
+        }
+        return new CheckoutResultDTO(orderMapper.toDto(order), orderItems, remainingStock);
+    }
+}
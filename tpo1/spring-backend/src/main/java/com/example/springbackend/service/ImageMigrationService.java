@@ -0,0 +1,65 @@
+package com.example.springbackend.service;
+
+import com.example.springbackend.dto.ProductDTO;
+import com.example.springbackend.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Image Migration Service
+ * One-off job that moves legacy base64 images out of products.image into the
+ * ImageStorageService blob store. Idempotent: only rows still holding a data URI are touched,
+ * one row (one LOB) at a time, each in its own short transaction.
+ * The update bumps the product version, so each row publishes a ProductChangedEvent: caches, ETags and
+ * indexes follow as for any other product write.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "images.migrate-on-startup", havingValue = "true", matchIfMissing = true)
+public class ImageMigrationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageMigrationService.class);
+
+    private final ProductRepository productRepository;
+    private final ImageStorageService imageStorageService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateInlineImages() {
+        List<Long> ids = productRepository.findIdsWithInlineImage();
+        if (ids.isEmpty()) return;
+
+        log.info("Migrating {} inline product images to the blob store", ids.size());
+        int migrated = 0;
+        for (Long id : ids) {
+            try {
+                Boolean done = transactionTemplate.execute(status -> {
+                    ProductDTO previous = productRepository.findDtoById(id).orElse(null);
+                    if (previous == null || previous.getImage() == null || !previous.getImage().startsWith("data:")) {
+                        return false;
+                    }
+                    productRepository.updateImage(id, imageStorageService.toStoredReference(previous.getImage()));
+                    productRepository.findDtoById(id).ifPresent(current -> {
+                        current.setImage(imageStorageService.toPublicUrl(current.getImage()));
+                        eventPublisher.publishEvent(new ProductChangedEvent(id, previous, current));
+                    });
+                    return true;
+                });
+                if (Boolean.TRUE.equals(done)) migrated++;
+            } catch (RuntimeException e) {
+                log.warn("Could not migrate image of product {}: {}", id, e.getMessage());
+            }
+        }
+        log.info("Migrated {} of {} inline product images", migrated, ids.size());
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.springbackend.service;
+
+import com.example.springbackend.exception.BadRequestException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Image Storage Service
+ * Content-addressed blob store on local disk for product images.
+ * Each image is stored once under its SHA-256 hash; products only keep the
+ * reference "/images/{hash}", which is turned into a public URL when mapped to a DTO.
+ */
+@Service
+public class ImageStorageService {
+
+    public static final String PATH_PREFIX = "/images/";
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path root;
+    private final String publicBaseUrl;
+
+    public ImageStorageService(@Value("${images.storage-dir:./data/images}") String storageDir,
+            @Value("${images.public-base-url:http://localhost:3000}") String publicBaseUrl) {
+        this.root = Paths.get(storageDir).toAbsolutePath().normalize();
+        this.publicBaseUrl = publicBaseUrl.endsWith("/")
+                ? publicBaseUrl.substring(0, publicBaseUrl.length() - 1)
+                : publicBaseUrl;
+    }
+
+    /**
+     * Converts the image value received from a client into what is persisted in products.image:
+     * - data URIs (base64) are stored on disk and replaced by "/images/{hash}"
+     * - our own public URLs are reduced back to "/images/{hash}"
+     * - anything else (external URLs) is kept as is
+     */
+    public String toStoredReference(String image) {
+        if (image == null || image.isBlank()) return image;
+        if (image.startsWith("data:")) {
+            return PATH_PREFIX + store(decodeDataUri(image));
+        }
+        if (image.startsWith(publicBaseUrl + PATH_PREFIX)) {
+            return image.substring(publicBaseUrl.length());
+        }
+        return image;
+    }
+
+    /**
+     * Converts a persisted products.image value into the URL exposed in ProductDTO.image
+     */
+    public String toPublicUrl(String stored) {
+        if (stored != null && stored.startsWith(PATH_PREFIX)) {
+            return publicBaseUrl + stored;
+        }
+        return stored;
+    }
+
+    /**
+     * Stores the bytes (if not already present) and returns their hash
+     */
+    public String store(byte[] content) {
+        String hash = sha256(content);
+        Path target = resolve(hash);
+        if (Files.exists(target)) {
+            return hash; // same content already stored once
+        }
+        try {
+            Files.createDirectories(target.getParent());
+            Path tmp = Files.createTempFile(target.getParent(), hash, ".tmp");
+            Files.write(tmp, content);
+            try {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                Files.deleteIfExists(tmp); // concurrent upload of the same image won the race
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return hash;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store image " + hash, e);
+        }
+    }
+
+    /**
+     * Sizes in bytes of up to max blobs already stored (sample of the real image sizes, used by the
+     * perf data generator). Empty when nothing was stored yet.
+     */
+    public long[] storedSizes(int max) {
+        if (!Files.isDirectory(root)) return new long[0];
+        try (Stream<Path> files = Files.walk(root, 2)) {
+            return files.filter(f -> HASH.matcher(f.getFileName().toString()).matches() && Files.isRegularFile(f))
+                    .limit(max)
+                    .mapToLong(f -> {
+                        try {
+                            return Files.size(f);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    })
+                    .toArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list images in " + root, e);
+        }
+    }
+
+    /**
+     * Path of the blob for a hash, sharded by its first two characters.
+     * Throws BadRequestException for anything that is not a hex SHA-256 (no path traversal).
+     */
+    public Path resolve(String hash) {
+        if (hash == null || !HASH.matcher(hash).matches()) {
+            throw new BadRequestException("Invalid image id");
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    /**
+     * Detects the media type from the file magic number (blobs are stored without extension)
+     */
+    public String contentType(Path blob) throws IOException {
+        byte[] head = new byte[12];
+        int n;
+        try (InputStream in = Files.newInputStream(blob)) {
+            n = in.readNBytes(head, 0, head.length);
+        }
+        if (n >= 8 && (head[0] & 0xFF) == 0x89 && head[1] == 'P' && head[2] == 'N' && head[3] == 'G') return "image/png";
+        if (n >= 3 && (head[0] & 0xFF) == 0xFF && (head[1] & 0xFF) == 0xD8 && (head[2] & 0xFF) == 0xFF) return "image/jpeg";
+        if (n >= 6 && head[0] == 'G' && head[1] == 'I' && head[2] == 'F') return "image/gif";
+        if (n >= 12 && head[0] == 'R' && head[1] == 'I' && head[2] == 'F' && head[3] == 'F'
+                && head[8] == 'W' && head[9] == 'E' && head[10] == 'B' && head[11] == 'P') return "image/webp";
+        return "application/octet-stream";
+    }
+
+    private static byte[] decodeDataUri(String dataUri) {
+        int comma = dataUri.indexOf(',');
+        if (comma < 0 || !dataUri.substring(0, comma).endsWith(";base64")) {
+            throw new BadRequestException("Image must be a base64 data URI");
+        }
+        try {
+            return Base64.getMimeDecoder().decode(dataUri.substring(comma + 1));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Image is not valid base64");
+        }
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,436 @@
+package com.example.springbackend.service;
+
+import com.example.springbackend.dto.HotInventoryDTO;
+import com.example.springbackend.dto.ProductDTO;
+import com.example.springbackend.exception.ConflictException;
+import com.example.springbackend.exception.ResourceNotFoundException;
+import com.example.springbackend.repository.ProductFacetView;
+import com.example.springbackend.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Inventory Engine
+ * Holds the stock of "hot" products (promoted by an admin) in memory so concurrent purchases
+ * do not queue on the products row lock:
+ * - available units are spread over striped counters (one cache line each) and taken with CAS,
+ *   so threads rarely touch the same counter;
+ * - reserve / commit / release follow the checkout transaction (see CheckoutService);
+ * - committed units are written back to products.stock right after the sale commits, before the response
+ *   (inventory.sync-flush, one batched UPDATE for every sale waiting on the flush), in batches every
+ *   inventory.flush-interval-ms and on shutdown; with sync-flush=false a crash loses the units sold since
+ *   the last flush, and they are sold again after the restart;
+ * - at startup the counters are rebuilt from products.stock of every row with hot = true.
+ *
+ * Single instance only: each instance holds the full stock of a hot product in its own counters, so two
+ * instances would sell it twice. promote() therefore answers 409 unless inventory.single-instance=true,
+ * and without it the startup returns hot rows to DB-backed stock instead of loading them.
+ *
+ * While a product is hot the DB-backed paths skip it (their UPDATEs require hot = false), so the
+ * counters are the only writer of its stock.
+ */
+@Component
+public class InventoryEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryEngine.class);
+
+    static final String FLUSH_SQL = "UPDATE products SET stock = stock - ?, version = version + 1 WHERE id = ?";
+    static final String PROMOTE_SQL = "SELECT stock FROM products WHERE id = ? FOR UPDATE";
+    static final String DEMOTE_SQL = "UPDATE products SET stock = ?, hot = false, version = version + 1 WHERE id = ?";
+    static final String DEMOTE_ALL_SQL = "UPDATE products SET hot = false, version = version + 1 WHERE hot = true";
+
+    public enum Outcome {
+        RESERVED,
+        INSUFFICIENT,
+        // being demoted: neither the counters nor the database may sell it for a few milliseconds
+        UNAVAILABLE,
+        // DB-backed product: the caller uses the regular conditional UPDATE
+        NOT_HOT
+    }
+
+    private final Map<Long, HotStock> hot = new ConcurrentHashMap<>();
+    // flush, promote and demote never run concurrently (each rewrites products.stock of hot rows)
+    private final ReentrantLock writeBehindLock = new ReentrantLock();
+
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ImageStorageService imageStorageService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int stripes;
+    private final long demoteTimeoutMs;
+    private final boolean singleInstance;
+    private final boolean syncFlush;
+
+    public InventoryEngine(ProductRepository productRepository, JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate, ImageStorageService imageStorageService,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${inventory.stripes:0}") int stripes,
+            @Value("${inventory.demote-timeout-ms:5000}") long demoteTimeoutMs,
+            @Value("${inventory.single-instance:false}") boolean singleInstance,
+            @Value("${inventory.sync-flush:true}") boolean syncFlush) {
+        this.productRepository = productRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.imageStorageService = imageStorageService;
+        this.eventPublisher = eventPublisher;
+        int wanted = stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors();
+        this.stripes = Integer.highestOneBit(Math.max(1, wanted - 1) << 1); // next power of two
+        this.demoteTimeoutMs = demoteTimeoutMs;
+        this.singleInstance = singleInstance;
+        this.syncFlush = syncFlush;
+    }
+
+    /**
+     * Rebuilds the counters before the web server accepts requests
+     */
+    @PostConstruct
+    public void reconcile() {
+        if (!singleInstance) {
+            // products.stock already holds every flushed sale: the rows simply become DB-backed again
+            int demoted = jdbcTemplate.update(DEMOTE_ALL_SQL);
+            if (demoted > 0) {
+                log.warn("inventory.single-instance is false: returned {} memory-backed products to DB-backed stock",
+                        demoted);
+            }
+            return;
+        }
+        for (ProductFacetView product : productRepository.findByHotTrue(ProductFacetView.class)) {
+            hot.put(product.getId(), new HotStock(stripes, product.getStock() != null ? product.getStock() : 0));
+        }
+        if (!hot.isEmpty()) {
+            log.info("Inventory engine loaded {} memory-backed products", hot.size());
+        }
+    }
+
+    public boolean isHot(Long productId) {
+        return hot.containsKey(productId);
+    }
+
+    /**
+     * Takes quantity units out of the available stock; they must later be committed or released
+     */
+    public Outcome reserve(Long productId, int quantity) {
+        HotStock stock = hot.get(productId);
+        if (stock == null) return Outcome.NOT_HOT;
+        // counted as reserved before checking closed: demote() sets closed and then waits for reserved == 0
+        stock.reserved.add(quantity);
+        if (stock.closed) {
+            stock.reserved.add(-quantity);
+            return Outcome.UNAVAILABLE;
+        }
+        if (stock.take(quantity)) return Outcome.RESERVED;
+        stock.reserved.add(-quantity);
+        return Outcome.INSUFFICIENT;
+    }
+
+    /**
+     * The reserved units were sold: they will be subtracted from products.stock on the next flush
+     */
+    public void commit(Long productId, int quantity) {
+        HotStock stock = hot.get(productId);
+        if (stock == null) return; // deleted meanwhile
+        stock.addPending(quantity);
+        stock.reserved.add(-quantity);
+    }
+
+    /**
+     * The reserved units go back to the available stock
+     */
+    public void release(Long productId, int quantity) {
+        HotStock stock = hot.get(productId);
+        if (stock == null) return;
+        stock.give(quantity);
+        stock.reserved.add(-quantity);
+    }
+
+    /**
+     * Direct stock change (PATCH /products/{id}/stock with delta): negative sells, positive restocks
+     */
+    public Outcome adjust(Long productId, int delta) {
+        if (delta < 0) {
+            Outcome outcome = reserve(productId, -delta);
+            if (outcome == Outcome.RESERVED) commit(productId, -delta);
+            return outcome;
+        }
+        HotStock stock = hot.get(productId);
+        if (stock == null) return Outcome.NOT_HOT;
+        stock.reserved.add(1); // same handshake as reserve() so demote() waits for us
+        try {
+            if (stock.closed) return Outcome.UNAVAILABLE;
+            stock.give(delta);
+            stock.addPending(-delta);
+            return Outcome.RESERVED;
+        } finally {
+            stock.reserved.add(-1);
+        }
+    }
+
+    /**
+     * Units that can still be reserved, or null for a DB-backed product
+     */
+    public Integer available(Long productId) {
+        HotStock stock = hot.get(productId);
+        return stock != null ? stock.available() : null;
+    }
+
+    public List<HotInventoryDTO> snapshot() {
+        List<HotInventoryDTO> result = new ArrayList<>(hot.size());
+        new TreeMap<>(hot).forEach((id, stock) -> result.add(toDto(id, stock)));
+        return result;
+    }
+
+    /**
+     * Switches a product to memory-backed stock. The row stays locked until the counters exist,
+     * and DB-backed UPDATEs waiting on that lock then see hot = true and match nothing.
+     */
+    public HotInventoryDTO promote(Long productId) {
+        if (!singleInstance) {
+            throw new ConflictException("Memory-backed stock needs a single application instance (each instance "
+                    + "would sell the full stock): set inventory.single-instance=true on single-node deployments only");
+        }
+        writeBehindLock.lock();
+        try {
+            HotStock existing = hot.get(productId);
+            if (existing != null) return toDto(productId, existing);
+            HotStock created = transactionTemplate.execute(status -> {
+                List<Integer> rows = jdbcTemplate.queryForList(PROMOTE_SQL, Integer.class, productId);
+                if (rows.isEmpty()) throw new ResourceNotFoundException("Product", "id", productId);
+                productRepository.updateHot(productId, true);
+                HotStock stock = new HotStock(stripes, rows.get(0) != null ? rows.get(0) : 0);
+                hot.put(productId, stock);
+                return stock;
+            });
+            log.info("Product {} promoted to memory-backed stock ({} units)", productId, created.available());
+            return toDto(productId, created);
+        } catch (RuntimeException e) {
+            hot.remove(productId); // the transaction rolled back
+            throw e;
+        } finally {
+            writeBehindLock.unlock();
+        }
+    }
+
+    /**
+     * Switches a product back to DB-backed stock: waits for in-flight reservations, writes the
+     * exact remaining stock and clears the hot flag
+     */
+    public int demote(Long productId) {
+        HotStock stock = hot.get(productId);
+        if (stock == null) throw new ResourceNotFoundException("Hot product", "id", productId);
+        stock.closed = true;
+        long deadline = System.currentTimeMillis() + demoteTimeoutMs;
+        while (stock.reserved.sum() != 0) {
+            if (System.currentTimeMillis() > deadline) {
+                stock.closed = false;
+                throw new ConflictException("Product " + productId + " still has reservations in progress");
+            }
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                stock.closed = false;
+                throw new ConflictException("Interrupted while demoting product " + productId);
+            }
+        }
+
+        writeBehindLock.lock();
+        try {
+            int pending = stock.drainPending();
+            int remaining = stock.available();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.update(DEMOTE_SQL, remaining, productId);
+                    productRepository.findDtoById(productId).ifPresent(current -> publishStockChanged(current, pending));
+                });
+            } catch (RuntimeException e) {
+                stock.addPending(pending);
+                stock.closed = false;
+                throw e;
+            }
+            hot.remove(productId);
+            log.info("Product {} demoted to DB-backed stock ({} units)", productId, remaining);
+            return remaining;
+        } finally {
+            writeBehindLock.unlock();
+        }
+    }
+
+    /**
+     * Write-behind: one batched UPDATE per interval with the units sold since the previous flush
+     */
+    @Scheduled(fixedDelayString = "${inventory.flush-interval-ms:200}")
+    public void flush() {
+        if (hot.isEmpty()) return;
+        writeBehindLock.lock();
+        try {
+            // sorted by id: same lock order as checkouts
+            Map<Long, Integer> pending = new TreeMap<>();
+            hot.forEach((id, stock) -> {
+                int units = stock.drainPending();
+                if (units != 0) pending.put(id, units);
+            });
+            if (pending.isEmpty()) return;
+            try {
+                List<Map.Entry<Long, Integer>> rows = new ArrayList<>(pending.entrySet());
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.batchUpdate(FLUSH_SQL, rows, rows.size(), (ps, row) -> {
+                        ps.setInt(1, row.getValue());
+                        ps.setLong(2, row.getKey());
+                    });
+                    for (ProductDTO current : productRepository.findDtosByIdIn(pending.keySet())) {
+                        publishStockChanged(current, pending.get(current.getId()));
+                    }
+                });
+            } catch (RuntimeException e) {
+                log.warn("Inventory flush failed, retrying on the next interval", e);
+                pending.forEach((id, units) -> {
+                    HotStock stock = hot.get(id);
+                    if (stock != null) stock.addPending(units);
+                });
+            }
+        } finally {
+            writeBehindLock.unlock();
+        }
+    }
+
+    /**
+     * Called once a sale or restock of hot units committed: writes them to products.stock before the caller
+     * answers (concurrent callers wait on the same lock and share one batch). A failure is retried by the
+     * scheduled flush.
+     */
+    public void flushCommitted() {
+        if (syncFlush) flush();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDelete()) {
+            hot.remove(event.productId());
+        }
+    }
+
+    private void publishStockChanged(ProductDTO current, int unitsSold) {
+        current.setImage(imageStorageService.toPublicUrl(current.getImage()));
+        eventPublisher.publishEvent(ProductChangedEvent.stockChanged(current, current.getStock() + unitsSold));
+    }
+
+    private static HotInventoryDTO toDto(Long productId, HotStock stock) {
+        return new HotInventoryDTO(productId, stock.available(), stock.reserved.sum(), stock.pending());
+    }
+
+    /**
+     * Striped counters of one product. Each stripe lives PAD ints apart (64 bytes) so two stripes
+     * never share a cache line.
+     */
+    static final class HotStock {
+        private static final int PAD = 16;
+
+        private final AtomicIntegerArray available;
+        private final AtomicIntegerArray pending;
+        private final int mask;
+        final LongAdder reserved = new LongAdder();
+        volatile boolean closed;
+
+        HotStock(int stripes, int stock) {
+            this.available = new AtomicIntegerArray(stripes * PAD);
+            this.pending = new AtomicIntegerArray(stripes * PAD);
+            this.mask = stripes - 1;
+            for (int i = 0; i < stripes; i++) {
+                available.set(i * PAD, stock / stripes + (i < stock % stripes ? 1 : 0));
+            }
+        }
+
+        private int home() {
+            return ThreadLocalRandom.current().nextInt() & mask;
+        }
+
+        boolean take(int quantity) {
+            int stripeCount = mask + 1;
+            int start = home();
+            // fast path: one stripe has enough
+            for (int i = 0; i < stripeCount; i++) {
+                int slot = ((start + i) & mask) * PAD;
+                for (int value = available.get(slot); value >= quantity; value = available.get(slot)) {
+                    if (available.compareAndSet(slot, value, value - quantity)) return true;
+                }
+            }
+            // slow path: gather from several stripes, give everything back if the total is not enough
+            int[] taken = new int[stripeCount];
+            int missing = quantity;
+            for (int i = 0; i < stripeCount && missing > 0; i++) {
+                int stripe = (start + i) & mask;
+                int slot = stripe * PAD;
+                for (int value = available.get(slot); value > 0; value = available.get(slot)) {
+                    int part = Math.min(value, missing);
+                    if (available.compareAndSet(slot, value, value - part)) {
+                        taken[stripe] += part;
+                        missing -= part;
+                        break;
+                    }
+                }
+            }
+            if (missing == 0) return true;
+            for (int stripe = 0; stripe < stripeCount; stripe++) {
+                if (taken[stripe] > 0) available.addAndGet(stripe * PAD, taken[stripe]);
+            }
+            return false;
+        }
+
+        void give(int quantity) {
+            available.addAndGet(home() * PAD, quantity);
+        }
+
+        void addPending(int quantity) {
+            pending.addAndGet(home() * PAD, quantity);
+        }
+
+        int drainPending() {
+            int total = 0;
+            for (int slot = 0; slot < pending.length(); slot += PAD) {
+                total += pending.getAndSet(slot, 0);
+            }
+            return total;
+        }
+
+        int available() {
+            int total = 0;
+            for (int slot = 0; slot < available.length(); slot += PAD) {
+                total += available.get(slot);
+            }
+            return total;
+        }
+
+        int pending() {
+            int total = 0;
+            for (int slot = 0; slot < pending.length(); slot += PAD) {
+                total += pending.get(slot);
+            }
+            return total;
+        }
+    }
+}
@@ -2,16 +2,23 @@ package com.example.springbackend.service;
 
 import com.example.springbackend.model.Order;
 import com.example.springbackend.dto.OrderDTO;
+import com.example.springbackend.exception.BadRequestException;
+import com.example.springbackend.exception.PreconditionFailedException;
 import com.example.springbackend.mapping.OrderMapper;
+import com.example.springbackend.repository.FieldProjectionRepository;
+import com.example.springbackend.repository.OrderItemRepository;
 import com.example.springbackend.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Order Service
@@ -23,7 +30,12 @@ import java.util.Optional;
 public class OrderService {
 
     private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
     private final OrderMapper orderMapper;
+    private final FieldProjectionRepository fieldProjectionRepository;
+
+    // Fields that can be requested with ?fields= (same names as OrderDTO)
+    public static final Set<String> ORDER_FIELDS = Set.of("id", "userId", "createdAt", "total", "status", "version");
 
     /**
      * Get all orders
@@ -39,6 +51,23 @@ public class OrderService {
         return orderMapper.toDtoList(findAllEntities());
     }
 
+    /**
+     * Public: get all orders selecting only the requested fields (sparse fieldset, no entities loaded)
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllOrderFields(List<String> fields) {
+        List<String> selected = fields.stream().map(String::trim).filter(f -> !f.isEmpty()).distinct().toList();
+        if (selected.isEmpty()) {
+            throw new BadRequestException("fields must not be empty");
+        }
+        for (String field : selected) {
+            if (!ORDER_FIELDS.contains(field)) {
+                throw new BadRequestException("Unknown order field: " + field);
+            }
+        }
+        return fieldProjectionRepository.findFields(Order.class, selected, null, Sort.by("id"), null);
+    }
+
     /**
      * Get order by ID
      */
@@ -78,17 +107,23 @@ public class OrderService {
 
     /**
      * Public: update existing order or create if not exists. Returns ResponseEntity<OrderDTO>
+     * expectedVersion (If-Match) must match the stored version, otherwise 412; null = no check.
      */
-    public ResponseEntity<OrderDTO> updateOrCreateOrder(Long id, OrderDTO updatedOrderDto) {
+    public ResponseEntity<OrderDTO> updateOrCreateOrder(Long id, OrderDTO updatedOrderDto, Long expectedVersion) {
         Optional<Order> existing = findByIdEntity(id);
         if (existing.isPresent()) {
             Order order = existing.get();
+            checkVersion(order, expectedVersion);
             order.setUserId(updatedOrderDto.getUserId());
             order.setTotal(updatedOrderDto.getTotal());
             order.setStatus(updatedOrderDto.getStatus());
-            Order saved = orderRepository.save(order);
+            // flush now so a concurrent update fails here (412) and the response carries the new version
+            Order saved = orderRepository.saveAndFlush(order);
             return ResponseEntity.ok(orderMapper.toDto(saved));
         } else {
+            if (expectedVersion != null) {
+                throw new PreconditionFailedException("Order " + id + " does not exist");
+            }
             Order newOrder = orderMapper.toEntity(updatedOrderDto);
             Order saved = saveEntity(newOrder);
             return ResponseEntity.ok(orderMapper.toDto(saved));
@@ -114,11 +149,20 @@ public class OrderService {
     }
 
     /**
-     * Public: delete order and return ResponseEntity
+     * Public: delete order (and its order_items, same transaction) and return ResponseEntity
      */
-    public ResponseEntity<Void> deleteOrderResponse(Long id) {
-        if (!exists(id)) return ResponseEntity.notFound().build();
-        delete(id);
+    public ResponseEntity<Void> deleteOrderResponse(Long id, Long expectedVersion) {
+        Optional<Order> existing = findByIdEntity(id);
+        if (existing.isEmpty()) return ResponseEntity.notFound().build();
+        checkVersion(existing.get(), expectedVersion);
+        orderItemRepository.deleteByOrderId(id);
+        orderRepository.delete(existing.get());
         return ResponseEntity.noContent().build();
     }
+
+    private static void checkVersion(Order order, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(order.getVersion())) {
+            throw PreconditionFailedException.staleVersion("Order", order.getId());
+        }
+    }
 }
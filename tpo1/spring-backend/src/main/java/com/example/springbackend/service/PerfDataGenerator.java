@@ -0,0 +1,321 @@
+package com.example.springbackend.service;
+
+import com.example.springbackend.model.Role;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Perf Data Generator (profile "perf")
+ * Fills an empty database with a synthetic catalog large enough to benchmark against:
+ * - categories with skewed sizes (Zipf over the categories, the first ones are the big ones);
+ * - products with log-normal prices, Zipf-distributed sellers and images from a pool of blobs whose
+ *   sizes are sampled from the images already stored (log-normal around 60 KB when there are none);
+ * - users sharing one BCrypt hash (password "perf123"), so hashing does not dominate the setup;
+ * - orders whose items follow a Zipf popularity: rank 1 is the first generated product id, so the hot
+ *   products are the lowest ids (the load test samples product detail the same way).
+ * Rows are written with explicit ids through batched JDBC, one transaction per chunk of 10 000, chunks
+ * in parallel. Each chunk seeds its own random from (seed, table, chunk), so the data is the same
+ * whatever the number of threads. Runs before the other startup listeners (index rebuilds, category
+ * count reconciliation) and does nothing when the products table already has the requested size,
+ * so a file-backed database is generated only once.
+ */
+@Service
+@Profile("perf")
+@ConditionalOnProperty(name = "perf.generator.enabled", havingValue = "true", matchIfMissing = true)
+public class PerfDataGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(PerfDataGenerator.class);
+
+    private static final int CHUNK = 10_000;
+    private static final String PASSWORD = "perf123";
+    // fixed end of the generated time range so runs are reproducible
+    private static final Instant UNTIL = Instant.parse("2025-10-01T00:00:00Z");
+    private static final long SPAN_SECONDS = 730L * 24 * 3600;
+
+    private static final String INSERT_CATEGORY_SQL =
+            "INSERT INTO categories (name, description, product_count) VALUES (?, ?, 0)";
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO usuarios (id, nombre, apellido, email, password, role) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_PRODUCT_SQL = "INSERT INTO products (id, name, price, category_id, "
+            + "description, image, stock, created_at, user_id, hot, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, false, 0)";
+    private static final String INSERT_ORDER_SQL =
+            "INSERT INTO orders (id, user_id, created_at, total, status, version) VALUES (?, ?, ?, ?, ?, 0)";
+
+    private static final String[] NOMBRES = { "Juan", "María", "Lucía", "Martín", "Sofía", "Mateo", "Valentina",
+            "Santiago", "Camila", "Benjamín", "Julieta", "Tomás", "Agustina", "Nicolás", "Florencia", "Joaquín" };
+    private static final String[] APELLIDOS = { "González", "Rodríguez", "Gómez", "Fernández", "López", "Díaz",
+            "Martínez", "Pérez", "García", "Sánchez", "Romero", "Sosa", "Álvarez", "Torres", "Ruiz", "Ramírez" };
+    private static final String[] ADJETIVOS = { "Premium", "Clásico", "Compacto", "Pro", "Básico", "Deluxe",
+            "Eco", "Ultra", "Mini", "Max" };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ImageStorageService imageStorageService;
+    private final PasswordEncoder passwordEncoder;
+
+    private final long seed;
+    private final int products;
+    private final int users;
+    private final int orders;
+    private final int categories;
+    private final int images;
+    private final int threads;
+    private final int batchSize;
+    private final double categorySkew;
+    private final double sellerSkew;
+    private final double productSkew;
+
+    public PerfDataGenerator(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            ImageStorageService imageStorageService, PasswordEncoder passwordEncoder,
+            @Value("${perf.generator.seed:42}") long seed,
+            @Value("${perf.generator.products:1000000}") int products,
+            @Value("${perf.generator.users:100000}") int users,
+            @Value("${perf.generator.orders:1000000}") int orders,
+            @Value("${perf.generator.categories:40}") int categories,
+            @Value("${perf.generator.images:300}") int images,
+            @Value("${perf.generator.threads:0}") int threads,
+            @Value("${perf.generator.batch-size:5000}") int batchSize,
+            @Value("${perf.generator.category-skew:1.2}") double categorySkew,
+            @Value("${perf.generator.seller-skew:1.1}") double sellerSkew,
+            @Value("${perf.generator.product-skew:0.99}") double productSkew) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.imageStorageService = imageStorageService;
+        this.passwordEncoder = passwordEncoder;
+        this.seed = seed;
+        this.products = products;
+        this.users = Math.max(1, users);
+        this.orders = orders;
+        this.categories = Math.max(1, categories);
+        this.images = Math.max(1, images);
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.batchSize = batchSize;
+        this.categorySkew = categorySkew;
+        this.sellerSkew = sellerSkew;
+        this.productSkew = productSkew;
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    @EventListener(ApplicationReadyEvent.class)
+    public void generate() {
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products", Long.class);
+        if (existing != null && existing >= products) {
+            log.info("Perf data already present ({} products), skipping generation", existing);
+            return;
+        }
+        long started = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Long> categoryIds = generateCategories();
+            String[] imagePool = generateImages();
+            long firstUser = nextId("usuarios");
+            generateUsers(pool, firstUser);
+            long firstProduct = nextId("products");
+            int[] prices = generateProducts(pool, firstProduct, firstUser, categoryIds, imagePool);
+            generateOrders(pool, nextId("orders"), firstProduct, prices, firstUser);
+            restartIdentities();
+        } finally {
+            pool.shutdown();
+        }
+        log.info("Generated {} products, {} users and {} orders ({} categories, {} images) in {} ms with {} threads",
+                products, users, orders, categories, images, (System.nanoTime() - started) / 1_000_000, threads);
+    }
+
+    /**
+     * Tops the categories up to the requested number and returns every id, in id order (= Zipf rank)
+     */
+    private List<Long> generateCategories() {
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM categories ORDER BY id", Long.class);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = ids.size() + 1; i <= categories; i++) {
+            rows.add(new Object[] { "Categoría " + i, "Categoría generada para pruebas de rendimiento" });
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_CATEGORY_SQL, rows);
+            ids = jdbcTemplate.queryForList("SELECT id FROM categories ORDER BY id", Long.class);
+        }
+        return ids;
+    }
+
+    /**
+     * Stores the pool of image blobs and returns their references ("/images/{hash}")
+     */
+    private String[] generateImages() {
+        long[] realSizes = imageStorageService.storedSizes(10_000);
+        SplittableRandom random = new SplittableRandom(seed * 31 + 7);
+        String[] refs = new String[images];
+        for (int i = 0; i < images; i++) {
+            int size = realSizes.length > 0
+                    ? (int) realSizes[random.nextInt(realSizes.length)]
+                    : (int) clamp(Math.exp(Math.log(60_000) + 0.9 * random.nextGaussian()), 4_000, 3_000_000);
+            byte[] content = new byte[Math.max(size, 16)];
+            random.nextBytes(content);
+            // JPEG magic number so GET /images/{hash} answers image/jpeg
+            content[0] = (byte) 0xFF;
+            content[1] = (byte) 0xD8;
+            content[2] = (byte) 0xFF;
+            content[3] = (byte) 0xE0;
+            refs[i] = ImageStorageService.PATH_PREFIX + imageStorageService.store(content);
+        }
+        return refs;
+    }
+
+    private void generateUsers(ExecutorService pool, long firstId) {
+        String hash = passwordEncoder.encode(PASSWORD);
+        inChunks(pool, "usuarios", users, (random, from, to) -> {
+            List<Object[]> rows = new ArrayList<>(batchSize);
+            for (int i = from; i < to; i++) {
+                long id = firstId + i;
+                rows.add(new Object[] { id, NOMBRES[random.nextInt(NOMBRES.length)],
+                        APELLIDOS[random.nextInt(APELLIDOS.length)], "perf-user-" + id + "@example.com", hash,
+                        Role.USER.name() });
+                rows = flushIfFull(INSERT_USER_SQL, rows);
+            }
+            flush(INSERT_USER_SQL, rows);
+        });
+    }
+
+    /**
+     * Returns the price of each generated product (index = id - firstId) for the order totals
+     */
+    private int[] generateProducts(ExecutorService pool, long firstId, long firstUser, List<Long> categoryIds,
+            String[] imagePool) {
+        int[] prices = new int[products];
+        ZipfSampler categorySampler = new ZipfSampler(categoryIds.size(), categorySkew);
+        ZipfSampler sellerSampler = new ZipfSampler(users, sellerSkew);
+        inChunks(pool, "products", products, (random, from, to) -> {
+            List<Object[]> rows = new ArrayList<>(batchSize);
+            for (int i = from; i < to; i++) {
+                long id = firstId + i;
+                int price = (int) clamp(Math.exp(Math.log(25_000) + random.nextGaussian()), 100, 50_000_000);
+                prices[i] = price;
+                Long categoryId = categoryIds.get(categorySampler.sample(random) - 1);
+                String image = random.nextInt(20) == 0 ? null : imagePool[random.nextInt(imagePool.length)];
+                int stock = random.nextInt(10) == 0 ? 0 : 1 + random.nextInt(200);
+                rows.add(new Object[] { id, "Producto " + ADJETIVOS[random.nextInt(ADJETIVOS.length)] + " " + id,
+                        price, categoryId, "Producto generado para pruebas de rendimiento (" + id + ")", image,
+                        stock, randomTimestamp(random), firstUser + sellerSampler.sample(random) - 1 });
+                rows = flushIfFull(INSERT_PRODUCT_SQL, rows);
+            }
+            flush(INSERT_PRODUCT_SQL, rows);
+        });
+        return prices;
+    }
+
+    private void generateOrders(ExecutorService pool, long firstId, long firstProduct, int[] prices, long firstUser) {
+        if (prices.length == 0) return;
+        ZipfSampler productSampler = new ZipfSampler(prices.length, productSkew);
+        inChunks(pool, "orders", orders, (random, from, to) -> {
+            List<Object[]> orderRows = new ArrayList<>(batchSize);
+            List<Object[]> itemRows = new ArrayList<>(batchSize);
+            for (int i = from; i < to; i++) {
+                long orderId = firstId + i;
+                long total = 0; // in cents, like CheckoutService
+                int lines = 1 + random.nextInt(4);
+                for (int line = 0; line < lines; line++) {
+                    int rank = productSampler.sample(random);
+                    int quantity = 1 + random.nextInt(3);
+                    total += (long) prices[rank - 1] * quantity;
+                    itemRows.add(new Object[] { orderId, firstProduct + rank - 1, quantity, prices[rank - 1] });
+                }
+                orderRows.add(new Object[] { orderId, firstUser + random.nextInt(users), randomTimestamp(random),
+                        (double) total, com.example.springbackend.model.Order.COMPLETADO });
+                // items reference their order: write the orders of the batch first
+                if (orderRows.size() >= batchSize) {
+                    orderRows = flushIfFull(INSERT_ORDER_SQL, orderRows);
+                    itemRows = flushIfFull(CheckoutService.INSERT_ITEM_SQL, itemRows);
+                }
+            }
+            flush(INSERT_ORDER_SQL, orderRows);
+            flush(CheckoutService.INSERT_ITEM_SQL, itemRows);
+        });
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter {
+        void write(SplittableRandom random, int from, int to);
+    }
+
+    /**
+     * Splits [0, rows) into chunks written in parallel, each in its own transaction with its own seeded random
+     */
+    private void inChunks(ExecutorService pool, String table, int rows, ChunkWriter writer) {
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int chunk = 0; chunk * CHUNK < rows; chunk++) {
+            int from = chunk * CHUNK;
+            int to = Math.min(rows, from + CHUNK);
+            SplittableRandom random = new SplittableRandom(seed * 1_000_003L + table.hashCode() * 65_537L + chunk);
+            tasks.add(() -> {
+                transactionTemplate.executeWithoutResult(status -> writer.write(random, from, to));
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> done : pool.invokeAll(tasks)) {
+                done.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Perf data generation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Perf data generation failed for " + table, e.getCause());
+        }
+    }
+
+    private List<Object[]> flushIfFull(String sql, List<Object[]> rows) {
+        if (rows.size() < batchSize) return rows;
+        flush(sql, rows);
+        return new ArrayList<>(batchSize);
+    }
+
+    private void flush(String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) jdbcTemplate.batchUpdate(sql, rows);
+    }
+
+    private long nextId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        return max == null ? 1 : max + 1;
+    }
+
+    /**
+     * MySQL moves AUTO_INCREMENT past explicit ids by itself; H2 identity columns have to be told
+     */
+    private void restartIdentities() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        if (!"H2".equals(product)) return;
+        for (String table : List.of("usuarios", "products", "orders", "order_items")) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + nextId(table));
+        }
+    }
+
+    private static Timestamp randomTimestamp(SplittableRandom random) {
+        return Timestamp.from(UNTIL.minusSeconds(random.nextLong(SPAN_SECONDS)));
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
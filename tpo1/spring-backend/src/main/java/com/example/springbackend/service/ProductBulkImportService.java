@@ -0,0 +1,386 @@
+package com.example.springbackend.service;
+
+import com.example.springbackend.dto.BulkImportResultDTO;
+import com.example.springbackend.dto.ProductDTO;
+import com.example.springbackend.exception.BadRequestException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Product Bulk Import Service
+ * Parses NDJSON or CSV incrementally from the request stream, validates each line and
+ * inserts valid rows with JDBC batches (one transaction per batch). With
+ * rewriteBatchedStatements=true MySQL receives each batch as multi-row INSERTs.
+ * Invalid lines are reported with their line number and never stop the import: a batch the database
+ * rejects is retried row by row to pin the error to its line, and a CSV that breaks off (unterminated
+ * quote) reports the line and returns what was imported before it.
+ */
+@Service
+public class ProductBulkImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    // column sizes of products (V1)
+    private static final int NAME_LENGTH = 255;
+    private static final int IMAGE_LENGTH = 1024;
+    private static final int DESCRIPTION_LENGTH = 2000;
+
+    private static final String INSERT_SQL = "INSERT INTO products "
+            + "(name, price, category_id, description, image, stock, created_at, user_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader productReader;
+    private final ImageStorageService imageStorageService;
+    private final CategoryLookup categoryLookup;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    public ProductBulkImportService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper, ImageStorageService imageStorageService, CategoryLookup categoryLookup,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${catalog.bulk.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.productReader = objectMapper.readerFor(ProductDTO.class);
+        this.imageStorageService = imageStorageService;
+        this.categoryLookup = categoryLookup;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * One JSON product per line (blank lines are skipped)
+     */
+    public BulkImportResultDTO importNdjson(InputStream in, Long userId) throws IOException {
+        Import job = new Import(userId);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) continue;
+            ProductDTO dto;
+            try {
+                dto = productReader.readValue(line);
+            } catch (JsonProcessingException e) {
+                job.reject(lineNumber, "Invalid JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            job.accept(lineNumber, dto);
+        }
+        return job.finish();
+    }
+
+    /**
+     * CSV with a header row naming the columns (name, price, category or categoryId, description, image, stock,
+     * createdAt).
+     * Fields may be quoted ("..." with "" as escaped quote) and quoted fields may span lines.
+     */
+    public BulkImportResultDTO importCsv(InputStream in, Long userId) throws IOException {
+        Import job = new Import(userId);
+        CsvReader csv = new CsvReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+        List<String> header = csv.next();
+        if (header == null) return job.finish();
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim(), i);
+        }
+        if (!columns.containsKey("name") || !columns.containsKey("price")) {
+            throw new BadRequestException("CSV header must contain at least name and price");
+        }
+
+        List<String> record;
+        while ((record = nextRecord(csv, job)) != null) {
+            long lineNumber = csv.recordLine();
+            if (record.size() == 1 && record.get(0).isBlank()) continue;
+            try {
+                ProductDTO dto = new ProductDTO();
+                dto.setName(column(record, columns, "name"));
+                dto.setPrice(integer(column(record, columns, "price")));
+                dto.setCategory(column(record, columns, "category"));
+                String categoryId = column(record, columns, "categoryId");
+                dto.setCategoryId(categoryId != null ? Long.valueOf(categoryId.trim()) : null);
+                dto.setDescription(column(record, columns, "description"));
+                dto.setImage(column(record, columns, "image"));
+                dto.setStock(integer(column(record, columns, "stock")));
+                String createdAt = column(record, columns, "createdAt");
+                dto.setCreatedAt(createdAt != null ? Instant.parse(createdAt) : null);
+                job.accept(lineNumber, dto);
+            } catch (RuntimeException e) {
+                job.reject(lineNumber, "Invalid value: " + e.getMessage());
+            }
+        }
+        return job.finish();
+    }
+
+    /**
+     * Next record, or null at the end or when the rest of the input cannot be split into records
+     * (the earlier batches are committed: the error goes to the report instead of failing the request)
+     */
+    private static List<String> nextRecord(CsvReader csv, Import job) throws IOException {
+        try {
+            return csv.next();
+        } catch (BadRequestException e) {
+            job.reject(csv.recordLine(), e.getMessage() + "; the rest of the input was not imported");
+            return null;
+        }
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) return null;
+        String value = record.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Integer integer(String value) {
+        return value == null ? null : Integer.valueOf(value.trim());
+    }
+
+    private static String validate(ProductDTO dto) {
+        if (dto.getName() == null || dto.getName().isBlank()) return "name is required";
+        if (dto.getName().length() > NAME_LENGTH) return "name is too long (max " + NAME_LENGTH + " characters)";
+        if (dto.getPrice() == null || dto.getPrice() < 0) return "price must be >= 0 (cents)";
+        if (dto.getCategoryId() == null && (dto.getCategory() == null || dto.getCategory().isBlank())) {
+            return "category is required";
+        }
+        if (dto.getStock() != null && dto.getStock() < 0) return "stock must be >= 0";
+        if (dto.getDescription() != null && dto.getDescription().length() > DESCRIPTION_LENGTH) {
+            return "description is too long (max " + DESCRIPTION_LENGTH + " characters)";
+        }
+        return null;
+    }
+
+    /**
+     * State of one import: the pending batch and the running result
+     */
+    private final class Import {
+        private final Long userId;
+        private final BulkImportResultDTO result = new BulkImportResultDTO();
+        private final List<ProductDTO> batch = new ArrayList<>(batchSize);
+        private final List<Long> batchLines = new ArrayList<>(batchSize);
+
+        Import(Long userId) {
+            this.userId = userId;
+        }
+
+        void accept(long line, ProductDTO dto) {
+            String error = validate(dto);
+            if (error != null) {
+                reject(line, error);
+                return;
+            }
+            try {
+                // cached name -> id map: no query per row
+                dto.setCategoryId(categoryLookup.resolve(dto.getCategoryId(), dto.getCategory()));
+                dto.setCategory(categoryLookup.nameOf(dto.getCategoryId()));
+                dto.setImage(imageStorageService.toStoredReference(dto.getImage()));
+            } catch (RuntimeException e) {
+                reject(line, e.getMessage());
+                return;
+            }
+            // inline images are stored as a short reference by now: only long URLs remain
+            if (dto.getImage() != null && dto.getImage().length() > IMAGE_LENGTH) {
+                reject(line, "image URL is too long (max " + IMAGE_LENGTH + " characters)");
+                return;
+            }
+            dto.setId(null);
+            dto.setUserId(userId);
+            if (dto.getStock() == null) dto.setStock(0);
+            if (dto.getCreatedAt() == null) dto.setCreatedAt(Instant.now());
+            batch.add(dto);
+            batchLines.add(line);
+            if (batch.size() >= batchSize) flush();
+        }
+
+        void reject(long line, String error) {
+            result.setFailed(result.getFailed() + 1);
+            if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+                result.getErrors().add(new BulkImportResultDTO.LineError(line, error));
+            } else {
+                result.setErrorsTruncated(true);
+            }
+        }
+
+        BulkImportResultDTO finish() {
+            flush();
+            return result;
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) return;
+            try {
+                transactionTemplate.executeWithoutResult(status -> insertBatch(batch));
+                result.setInserted(result.getInserted() + batch.size());
+            } catch (RuntimeException e) {
+                insertOneByOne();
+            }
+            batch.clear();
+            batchLines.clear();
+        }
+
+        /**
+         * The batch rolled back: each row again in its own transaction, so only the failing lines are rejected
+         */
+        private void insertOneByOne() {
+            for (int i = 0; i < batch.size(); i++) {
+                ProductDTO row = batch.get(i);
+                row.setId(null);
+                row.setVersion(null);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insertBatch(List.of(row)));
+                    result.setInserted(result.getInserted() + 1);
+                } catch (RuntimeException e) {
+                    reject(batchLines.get(i),
+                            "Insert failed: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                }
+            }
+        }
+    }
+
+    private void insertBatch(List<ProductDTO> rows) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (ProductDTO row : rows) {
+                    ps.setString(1, row.getName());
+                    ps.setInt(2, row.getPrice());
+                    ps.setLong(3, row.getCategoryId());
+                    ps.setString(4, row.getDescription());
+                    ps.setString(5, row.getImage());
+                    ps.setInt(6, row.getStock());
+                    ps.setTimestamp(7, Timestamp.from(row.getCreatedAt()));
+                    if (row.getUserId() != null) ps.setLong(8, row.getUserId());
+                    else ps.setNull(8, Types.BIGINT);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    int i = 0;
+                    while (keys.next() && i < rows.size()) {
+                        rows.get(i++).setId(keys.getLong(1));
+                    }
+                }
+            }
+            readVersions(connection, rows);
+            return null;
+        });
+        // indexes, caches and ETags pick the new rows up after commit
+        for (ProductDTO row : rows) {
+            if (row.getId() == null) continue;
+            ProductDTO current = new ProductDTO(row.getId(), row.getName(), row.getPrice(), row.getCategory(),
+                    row.getCategoryId(), row.getDescription(), imageStorageService.toPublicUrl(row.getImage()),
+                    row.getStock(), row.getCreatedAt(), row.getUserId(), row.getVersion());
+            eventPublisher.publishEvent(new ProductChangedEvent(row.getId(), null, current));
+        }
+    }
+
+    /**
+     * Versions the database gave the inserted rows (column default), so events and ETags carry the stored one
+     */
+    private static void readVersions(Connection connection, List<ProductDTO> rows) throws SQLException {
+        Map<Long, ProductDTO> byId = new HashMap<>();
+        for (ProductDTO row : rows) {
+            if (row.getId() != null) byId.put(row.getId(), row);
+        }
+        if (byId.isEmpty()) return;
+        String placeholders = String.join(",", Collections.nCopies(byId.size(), "?"));
+        try (PreparedStatement ps = connection.prepareStatement(
+                "SELECT id, version FROM products WHERE id IN (" + placeholders + ")")) {
+            int i = 1;
+            for (Long id : byId.keySet()) ps.setLong(i++, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) byId.get(rs.getLong(1)).setVersion(rs.getLong(2));
+            }
+        }
+    }
+
+    /**
+     * Minimal RFC 4180 reader: one record per call, quoted fields may contain separators and newlines
+     */
+    private static final class CsvReader {
+        private final Reader reader;
+        private long line = 1;
+        private long recordLine;
+
+        CsvReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        long recordLine() {
+            return recordLine;
+        }
+
+        List<String> next() throws IOException {
+            int c = read();
+            if (c == -1) return null;
+            recordLine = line;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) throw new BadRequestException("Unterminated quoted field at line " + recordLine);
+                    if (c == '"') {
+                        int n = read();
+                        if (n == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            c = n;
+                            continue;
+                        }
+                    } else {
+                        if (c == '\n') line++;
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\r') {
+                    // ignored, \n ends the record
+                } else if (c == '\n' || c == -1) {
+                    if (c == '\n') line++;
+                    fields.add(field.toString());
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        private int read() throws IOException {
+            return reader.read();
+        }
+    }
+}
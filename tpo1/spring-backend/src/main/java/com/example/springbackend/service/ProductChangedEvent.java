@@ -0,0 +1,25 @@
+package com.example.springbackend.service;
+
+import com.example.springbackend.dto.ProductDTO;
+
+/**
+ * Published by ProductService on every product write.
+ * previous is null on create, current is null on delete.
+ * Listeners use @TransactionalEventListener so they only see committed changes.
+ */
+public record ProductChangedEvent(Long productId, ProductDTO previous, ProductDTO current) {
+
+    public boolean isDelete() {
+        return current == null;
+    }
+
+    /**
+     * Event for a stock-only change: previous is current with the old stock
+     */
+    public static ProductChangedEvent stockChanged(ProductDTO current, Integer previousStock) {
+        ProductDTO previous = new ProductDTO(current.getId(), current.getName(), current.getPrice(),
+                current.getCategory(), current.getCategoryId(), current.getDescription(), current.getImage(),
+                previousStock, current.getCreatedAt(), current.getUserId(), current.getVersion());
+        return new ProductChangedEvent(current.getId(), previous, current);
+    }
+}
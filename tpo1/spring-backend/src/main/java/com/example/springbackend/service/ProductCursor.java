@@ -0,0 +1,36 @@
+package com.example.springbackend.service;
+
+import com.example.springbackend.exception.BadRequestException;
+import com.example.springbackend.model.Product;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor over (createdAt, id).
+ * Encoded as base64url("createdAt|id") so clients never build it by hand.
+ */
+record ProductCursor(Instant createdAt, Long id) {
+
+    static ProductCursor of(Product product) {
+        return new ProductCursor(product.getCreatedAt(), product.getId());
+    }
+
+    String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ProductCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            if (sep < 0) throw new BadRequestException("Invalid cursor");
+            return new ProductCursor(Instant.parse(raw.substring(0, sep)), Long.valueOf(raw.substring(sep + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
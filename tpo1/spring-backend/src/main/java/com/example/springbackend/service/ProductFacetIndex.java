@@ -0,0 +1,265 @@
+package com.example.springbackend.service;
+
+import com.example.springbackend.dto.ProductDTO;
+import com.example.springbackend.repository.ProductFacetView;
+import com.example.springbackend.repository.ProductRepository;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Product Facet Index
+ * One compressed (Roaring) bitmap of product ids per facet value: category, price bucket,
+ * in-stock flag and seller (userId). Filters become bitmap OR (within a facet) and AND
+ * (across facets) instead of SQL scans. Maintained from ProductChangedEvent after each commit
+ * and rebuilt in the background on startup.
+ */
+@Component
+public class ProductFacetIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductFacetIndex.class);
+
+    public static final String CATEGORY = "category";
+    public static final String PRICE = "price";
+    public static final String IN_STOCK = "inStock";
+    public static final String SELLER = "userId";
+    public static final List<String> DIMENSIONS = List.of(CATEGORY, PRICE, IN_STOCK, SELLER);
+
+    // Price bucket upper bounds in cents: 0-10000, 10000-25000, 25000-50000, 50000-100000, 100000+
+    private static final int[] PRICE_BOUNDS = { 10000, 25000, 50000, 100000 };
+
+    private static final int REBUILD_PAGE_SIZE = 5000;
+
+    private final ProductRepository productRepository;
+    private final CategoryLookup categoryLookup;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // guarded by lock
+    private Segment index = new Segment();
+    private List<Change> pendingDuringRebuild;
+
+    public ProductFacetIndex(ProductRepository productRepository, CategoryLookup categoryLookup) {
+        this.productRepository = productRepository;
+        this.categoryLookup = categoryLookup;
+    }
+
+    /**
+     * Result of a facet query: matching ids (newest first, at most limit) plus counts per facet value.
+     * Counts of one facet ignore that facet's own filter, so clients can show the alternatives.
+     */
+    public record Result(long total, List<Long> ids, Map<String, Map<String, Integer>> facets) {
+    }
+
+    /**
+     * @param filters facet name -> accepted values (OR within a facet, AND across facets)
+     */
+    public Result query(Map<String, Set<String>> filters, int limit) {
+        lock.readLock().lock();
+        try {
+            Segment segment = index;
+            Map<String, RoaringBitmap> selected = new HashMap<>();
+            for (Map.Entry<String, Set<String>> filter : filters.entrySet()) {
+                if (filter.getValue() == null || filter.getValue().isEmpty()) continue;
+                Map<String, RoaringBitmap> values = segment.dimension(filter.getKey());
+                RoaringBitmap union = new RoaringBitmap();
+                for (String value : filter.getValue()) {
+                    RoaringBitmap bitmap = values.get(value);
+                    if (bitmap != null) union.or(bitmap);
+                }
+                selected.put(filter.getKey(), union);
+            }
+
+            RoaringBitmap matches = intersect(segment.all, selected, null);
+
+            Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+            for (String dimension : DIMENSIONS) {
+                RoaringBitmap base = selected.containsKey(dimension)
+                        ? intersect(segment.all, selected, dimension)
+                        : matches;
+                Map<String, Integer> counts = new LinkedHashMap<>();
+                for (Map.Entry<String, RoaringBitmap> value : segment.dimension(dimension).entrySet()) {
+                    int count = RoaringBitmap.andCardinality(base, value.getValue());
+                    if (count > 0) counts.put(value.getKey(), count);
+                }
+                facets.put(dimension, counts);
+            }
+
+            List<Long> ids = new ArrayList<>(Math.min(limit, matches.getCardinality()));
+            IntIterator newestFirst = matches.getReverseIntIterator();
+            while (newestFirst.hasNext() && ids.size() < limit) {
+                ids.add((long) newestFirst.next());
+            }
+            return new Result(matches.getLongCardinality(), ids, facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static RoaringBitmap intersect(RoaringBitmap all, Map<String, RoaringBitmap> selected, String skip) {
+        RoaringBitmap result = all.clone();
+        for (Map.Entry<String, RoaringBitmap> filter : selected.entrySet()) {
+            if (!filter.getKey().equals(skip)) result.and(filter.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * Price bucket label for a price in cents, e.g. "10000-25000" or "100000+"
+     */
+    public static String priceBucket(Integer price) {
+        if (price == null) return null;
+        int lower = 0;
+        for (int upper : PRICE_BOUNDS) {
+            if (price < upper) return lower + "-" + upper;
+            lower = upper;
+        }
+        return lower + "+";
+    }
+
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        ProductDTO p = event.current();
+        apply(new Change(event.productId(),
+                p == null ? null : values(p.getCategory(), p.getPrice(), p.getStock(), p.getUserId())));
+    }
+
+    // products carry the category name: renaming a category that has products needs every product re-indexed
+    @TransactionalEventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        if (event.productsAffected()) rebuildOnStartup();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        CompletableFuture.runAsync(this::rebuild)
+                .exceptionally(e -> {
+                    log.error("Product facet index rebuild failed", e);
+                    return null;
+                });
+    }
+
+    /**
+     * Rebuilds every bitmap from the database; queries use the previous segment meanwhile
+     */
+    public synchronized void rebuild() { // one rebuild at a time (pendingDuringRebuild is shared)
+        long started = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Segment fresh = new Segment();
+        boolean completed = false;
+        try {
+            long lastId = 0;
+            while (true) {
+                List<ProductFacetView> page = productRepository.findByIdGreaterThanOrderByIdAsc(lastId,
+                        PageRequest.of(0, REBUILD_PAGE_SIZE), ProductFacetView.class);
+                if (page.isEmpty()) break;
+                categoryLookup.preload(page.stream().map(ProductFacetView::getCategoryId).collect(Collectors.toSet()));
+                for (ProductFacetView p : page) {
+                    fresh.add(p.getId(), values(categoryLookup.nameOf(p.getCategoryId()), p.getPrice(), p.getStock(),
+                            p.getUserId()));
+                }
+                lastId = page.get(page.size() - 1).getId();
+            }
+            fresh.all.runOptimize();
+            completed = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (completed) {
+                    pendingDuringRebuild.forEach(fresh::apply);
+                    index = fresh;
+                }
+                pendingDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("Product facet index rebuilt: {} products in {} ms", fresh.all.getCardinality(),
+                System.currentTimeMillis() - started);
+    }
+
+    private void apply(Change change) {
+        lock.writeLock().lock();
+        try {
+            if (pendingDuringRebuild != null) pendingDuringRebuild.add(change);
+            index.apply(change);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Map<String, String> values(String category, Integer price, Integer stock, Long userId) {
+        Map<String, String> values = new HashMap<>();
+        if (category != null) values.put(CATEGORY, category);
+        if (price != null) values.put(PRICE, priceBucket(price));
+        values.put(IN_STOCK, String.valueOf(stock != null && stock > 0));
+        if (userId != null) values.put(SELLER, String.valueOf(userId));
+        return values;
+    }
+
+    // values == null means the product was deleted
+    private record Change(Long id, Map<String, String> values) {
+    }
+
+    private static final class Segment {
+        private final RoaringBitmap all = new RoaringBitmap();
+        private final Map<String, Map<String, RoaringBitmap>> dimensions = new HashMap<>();
+        // current facet values per product, needed to clear the old bits on update/delete
+        private final Map<Integer, Map<String, String>> valuesById = new HashMap<>();
+
+        Map<String, RoaringBitmap> dimension(String name) {
+            return dimensions.getOrDefault(name, Map.of());
+        }
+
+        void apply(Change change) {
+            remove(change.id());
+            if (change.values() != null) add(change.id(), change.values());
+        }
+
+        void add(Long id, Map<String, String> values) {
+            int bit = Math.toIntExact(id);
+            remove(id);
+            all.add(bit);
+            for (Map.Entry<String, String> value : values.entrySet()) {
+                dimensions.computeIfAbsent(value.getKey(), d -> new HashMap<>())
+                        .computeIfAbsent(value.getValue(), v -> new RoaringBitmap())
+                        .add(bit);
+            }
+            valuesById.put(bit, values);
+        }
+
+        void remove(Long id) {
+            int bit = Math.toIntExact(id);
+            Map<String, String> previous = valuesById.remove(bit);
+            if (previous == null) return;
+            all.remove(bit);
+            for (Map.Entry<String, String> value : previous.entrySet()) {
+                Map<String, RoaringBitmap> values = dimensions.get(value.getKey());
+                RoaringBitmap bitmap = values.get(value.getValue());
+                bitmap.remove(bit);
+                if (bitmap.isEmpty()) values.remove(value.getValue());
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.springbackend.service;
+
+import com.example.springbackend.exception.BadRequestException;
+import com.example.springbackend.model.Product;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filters accepted by GET /products (null = not filtered). Prices are in cents, both bounds inclusive.
+ * Only the combinations that one of the indexes declared on Product reads in sort order are accepted
+ * (see requireIndexFor; ProductQueryPlanVerifier checks them with EXPLAIN):
+ * - category with any sort but name: (category_id, created_at, id) and (category_id, price, id);
+ * - sellerId with createdAt / -createdAt: (user_id, created_at, id);
+ * - minPrice / maxPrice with price / -price (price, id), or with an index of the category / seller above;
+ * - inStock=true with anything (checked on the rows read, most products are in stock);
+ *   inStock=false together with category or sellerId.
+ */
+public record ProductFilter(String category, Integer minPrice, Integer maxPrice, Boolean inStock, Long sellerId) {
+
+    public static final ProductFilter NONE = new ProductFilter(null, null, null, null, null);
+
+    public ProductFilter {
+        if ((minPrice != null && minPrice < 0) || (maxPrice != null && maxPrice < 0)) {
+            throw new BadRequestException("minPrice and maxPrice must not be negative");
+        }
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            throw new BadRequestException("minPrice must not be greater than maxPrice");
+        }
+    }
+
+    public boolean isEmpty() {
+        return category == null && !hasNonCategoryFilters();
+    }
+
+    public boolean hasNonCategoryFilters() {
+        return minPrice != null || maxPrice != null || inStock != null || sellerId != null;
+    }
+
+    /**
+     * 400 when no index reads these filters in the given order (the query would scan and sort the table)
+     */
+    public void requireIndexFor(ProductSort sort) {
+        String unsupported = unsupportedWith(sort);
+        if (unsupported != null) {
+            throw new BadRequestException("sort=" + sort.param() + " cannot be combined with " + unsupported
+                    + " (no index serves it). Supported: category with any sort but name; sellerId with createdAt; "
+                    + "minPrice/maxPrice with price, or with category or sellerId; inStock=false with category "
+                    + "or sellerId");
+        }
+    }
+
+    /**
+     * The filters that keep this combination off the indexes, or null when one of them serves it
+     */
+    String unsupportedWith(ProductSort sort) {
+        // an equality on the leading column of an (x, sort key, id) index: every other filter is checked per row
+        boolean leadingEquality = switch (sort.property()) {
+            case "createdAt" -> category != null || sellerId != null;
+            case "price" -> category != null;
+            default -> false;
+        };
+        if (leadingEquality) return null;
+        List<String> unsupported = new ArrayList<>();
+        if (category != null) unsupported.add("category");
+        if (sellerId != null) unsupported.add("sellerId");
+        if ((minPrice != null || maxPrice != null) && !sort.property().equals("price")) {
+            unsupported.add("minPrice/maxPrice");
+        }
+        if (Boolean.FALSE.equals(inStock)) unsupported.add("inStock=false");
+        return unsupported.isEmpty() ? null : String.join(", ", unsupported);
+    }
+
+    /**
+     * AND of the given filters, or null when there is nothing to filter.
+     * The category name is resolved to its id once, here; an unknown name matches nothing.
+     */
+    public Specification<Product> toSpecification(CategoryLookup categoryLookup) {
+        if (isEmpty()) return null;
+        Long categoryId = category == null ? null : categoryLookup.idOf(category);
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (category != null) {
+                predicates.add(categoryId == null ? cb.disjunction() : cb.equal(root.get("categoryId"), categoryId));
+            }
+            if (minPrice != null) predicates.add(cb.greaterThanOrEqualTo(root.get("price"), minPrice));
+            if (maxPrice != null) predicates.add(cb.lessThanOrEqualTo(root.get("price"), maxPrice));
+            if (inStock != null) {
+                // same rule as the inStock facet: a null stock counts as out of stock
+                predicates.add(inStock
+                        ? cb.greaterThan(root.get("stock"), 0)
+                        : cb.or(cb.isNull(root.get("stock")), cb.lessThanOrEqualTo(root.get("stock"), 0)));
+            }
+            if (sellerId != null) predicates.add(cb.equal(root.get("userId"), sellerId));
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
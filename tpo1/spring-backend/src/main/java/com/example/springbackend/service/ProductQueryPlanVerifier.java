@@ -0,0 +1,164 @@
+package com.example.springbackend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Query Plan Verifier
+ * Runs MySQL EXPLAIN for every GET /products filter combination (category, price range,
+ * inStock=true / inStock=false, sellerId) and ProductSort that ProductFilter.requireIndexFor accepts, for the
+ * first page and for a next page (the keyset seek predicate of ProductSort.after), and reports the ones that do
+ * not seek an index in order: the products access must be range, ref, eq_ref or const, without
+ * "Using filesort". A full index walk (type=index) only passes for a first page without filters or with
+ * inStock=true alone, where the LIMIT stops it after about one page.
+ * The SQL mirrors ProductFilter.toSpecification, ProductSort.toSort and ProductSort.after; keep them in sync.
+ * Off by default; enable with catalog.query-plans.verify=true against a database with realistic data
+ * (on a handful of rows MySQL prefers a table scan regardless of the indexes).
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "catalog.query-plans.verify", havingValue = "true")
+public class ProductQueryPlanVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductQueryPlanVerifier.class);
+
+    private static final int CATEGORY = 1, PRICE_RANGE = 2, IN_STOCK = 4, OUT_OF_STOCK = 8, SELLER = 16;
+    private static final List<Integer> STOCK_FILTERS = List.of(0, IN_STOCK, OUT_OF_STOCK);
+    private static final Set<String> SEEK_ACCESS = Set.of("range", "ref", "eq_ref", "const");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // true: a combination without an index seek aborts startup, so the check can gate a CI / staging deployment
+    @Value("${catalog.query-plans.fail-on-full-scan:false}")
+    private boolean failOnFullScan;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verify() {
+        List<Map<String, Object>> sample = jdbcTemplate.queryForList(
+                "SELECT id, category_id, user_id, created_at, price, name FROM products "
+                        + "WHERE category_id IS NOT NULL AND user_id IS NOT NULL AND created_at IS NOT NULL "
+                        + "AND price IS NOT NULL AND name IS NOT NULL LIMIT 1");
+        if (sample.isEmpty()) {
+            log.info("Query plan verification skipped: products is empty");
+            return;
+        }
+        Map<String, Object> row = sample.get(0);
+
+        List<String> failures = new ArrayList<>();
+        int checked = 0;
+        for (int base = 0; base < 32; base++) {
+            if ((base & (IN_STOCK | OUT_OF_STOCK)) != 0) continue;
+            for (int stock : STOCK_FILTERS) {
+                int filters = base | stock;
+                for (ProductSort sort : ProductSort.values()) {
+                    if (toFilter(filters).unsupportedWith(sort) != null) continue; // answered with 400
+                    for (boolean seek : new boolean[] { false, true }) {
+                        List<Object> args = new ArrayList<>();
+                        String sql = pageQuery(filters, sort, seek, row, args);
+                        String problem = planProblem(sql, args, (filters == 0 || filters == IN_STOCK) && !seek);
+                        checked++;
+                        if (problem != null) {
+                            failures.add(describe(filters, sort, seek) + " (" + problem + ")");
+                        }
+                    }
+                }
+            }
+        }
+        if (failures.isEmpty()) {
+            log.info("Query plan verification: all {} product filter/sort/page combinations seek an index", checked);
+            return;
+        }
+        log.warn("Query plan verification: {} of {} product queries do not seek an index: {}",
+                failures.size(), checked, failures);
+        if (failOnFullScan) {
+            throw new IllegalStateException("Product queries without an index seek: " + failures);
+        }
+    }
+
+    private static ProductFilter toFilter(int filters) {
+        boolean priceRange = (filters & PRICE_RANGE) != 0;
+        Boolean inStock = (filters & IN_STOCK) != 0 ? Boolean.TRUE
+                : (filters & OUT_OF_STOCK) != 0 ? Boolean.FALSE : null;
+        return new ProductFilter((filters & CATEGORY) != 0 ? "category" : null, priceRange ? 500000 : null,
+                priceRange ? 1500000 : null, inStock, (filters & SELLER) != 0 ? 1L : null);
+    }
+
+    private static String pageQuery(int filters, ProductSort sort, boolean seek, Map<String, Object> row,
+            List<Object> args) {
+        List<String> where = new ArrayList<>();
+        if ((filters & CATEGORY) != 0) {
+            where.add("category_id = ?");
+            args.add(row.get("category_id"));
+        }
+        if ((filters & PRICE_RANGE) != 0) {
+            where.add("price >= ? AND price <= ?");
+            args.add(500000);
+            args.add(1500000);
+        }
+        if ((filters & IN_STOCK) != 0) where.add("stock > 0");
+        if ((filters & OUT_OF_STOCK) != 0) where.add("(stock IS NULL OR stock <= 0)");
+        if ((filters & SELLER) != 0) {
+            where.add("user_id = ?");
+            args.add(row.get("user_id"));
+        }
+        boolean ascending = sort.direction().isAscending();
+        if (seek) {
+            // rows after the sample row, as ProductSort.after builds it for a non-null key
+            String column = sort.column();
+            where.add(ascending
+                    ? "(" + column + " > ? OR (" + column + " = ? AND id > ?))"
+                    : "(" + column + " < ? OR (" + column + " = ? AND id < ?) OR " + column + " IS NULL)");
+            args.add(row.get(column));
+            args.add(row.get(column));
+            args.add(row.get("id"));
+        }
+        String direction = ascending ? "ASC" : "DESC";
+        return "SELECT * FROM products"
+                + (where.isEmpty() ? "" : " WHERE " + String.join(" AND ", where))
+                + " ORDER BY " + sort.column() + " " + direction + ", id " + direction
+                + " LIMIT " + (ProductService.DEFAULT_PAGE_SIZE + 1);
+    }
+
+    /**
+     * Why the products table is not read through an index seek in the requested order, or null when it is
+     */
+    private String planProblem(String sql, List<Object> args, boolean indexWalkAllowed) {
+        for (Map<String, Object> row : jdbcTemplate.queryForList("EXPLAIN " + sql, args.toArray())) {
+            if (!"products".equals(row.get("table"))) continue;
+            Object key = row.get("key");
+            String type = String.valueOf(row.get("type"));
+            String extra = String.valueOf(row.get("Extra"));
+            if (key == null) return "table scan";
+            if (extra.contains("Using filesort")) return "filesort on " + key;
+            if (!SEEK_ACCESS.contains(type) && !(indexWalkAllowed && "index".equals(type))) {
+                return "type=" + type + " on " + key;
+            }
+            log.debug("{} -> {} {}", sql, type, key);
+            return null;
+        }
+        return "no plan row for products";
+    }
+
+    private static String describe(int filters, ProductSort sort, boolean seek) {
+        List<String> names = new ArrayList<>();
+        if ((filters & CATEGORY) != 0) names.add("category");
+        if ((filters & PRICE_RANGE) != 0) names.add("minPrice+maxPrice");
+        if ((filters & IN_STOCK) != 0) names.add("inStock=true");
+        if ((filters & OUT_OF_STOCK) != 0) names.add("inStock=false");
+        if ((filters & SELLER) != 0) names.add("sellerId");
+        return (names.isEmpty() ? "no filter" : String.join("+", names)) + " sort=" + sort.param()
+                + (seek ? " next page" : " first page");
+    }
+}
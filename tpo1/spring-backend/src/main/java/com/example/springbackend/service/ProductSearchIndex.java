@@ -0,0 +1,284 @@
+package com.example.springbackend.service;
+
+import com.example.springbackend.dto.ProductDTO;
+import com.example.springbackend.repository.ProductRepository;
+import com.example.springbackend.repository.ProductTextView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Product Search Index
+ * In-process inverted index over product name, description and category with BM25 ranking.
+ * Text is accent-folded and lower-cased ("Electrónicos" matches "electronicos").
+ * Kept up to date from ProductChangedEvent after each commit and rebuilt in the background on startup.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    // BM25 parameters
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // Field boosts, applied as extra term frequency
+    private static final int NAME_WEIGHT = 3;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    // The last query term also matches as a prefix (search-as-you-type), with a lower weight
+    private static final int MAX_PREFIX_EXPANSIONS = 50;
+    private static final double PREFIX_MATCH_WEIGHT = 0.5;
+
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "al", "con", "de", "del", "el", "en", "la", "las", "lo", "los", "o", "para", "por", "que",
+            "se", "sin", "su", "un", "una", "y");
+
+    private final ProductRepository productRepository;
+    private final CategoryLookup categoryLookup;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // guarded by lock
+    private Segment index = new Segment();
+    // changes received while a rebuild is running, replayed on the new segment (null when not rebuilding)
+    private List<Change> pendingDuringRebuild;
+
+    public ProductSearchIndex(ProductRepository productRepository, CategoryLookup categoryLookup) {
+        this.productRepository = productRepository;
+        this.categoryLookup = categoryLookup;
+    }
+
+    /**
+     * Returns the ids of the best k matches, best first
+     */
+    public List<Long> search(String query, int k) {
+        List<String> terms = tokenize(query).stream().distinct().toList();
+        if (terms.isEmpty()) return List.of();
+
+        Map<Long, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            Segment segment = index;
+            int docCount = segment.docs.size();
+            if (docCount == 0) return List.of();
+            double avgLength = (double) segment.totalLength / docCount;
+
+            for (int i = 0; i < terms.size(); i++) {
+                String term = terms.get(i);
+                boolean last = i == terms.size() - 1;
+                for (String candidate : last ? segment.expand(term) : List.of(term)) {
+                    Map<Long, Integer> postings = segment.postings.get(candidate);
+                    if (postings == null) continue;
+                    double weight = candidate.equals(term) ? 1.0 : PREFIX_MATCH_WEIGHT;
+                    double idf = Math.log(1 + (docCount - postings.size() + 0.5) / (postings.size() + 0.5));
+                    for (Map.Entry<Long, Integer> posting : postings.entrySet()) {
+                        int tf = posting.getValue();
+                        int length = segment.docs.get(posting.getKey()).length();
+                        double score = weight * idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / avgLength));
+                        scores.merge(posting.getKey(), score, Double::sum);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // top-k with a min-heap; ties broken by newest id
+        Comparator<Map.Entry<Long, Double>> byScore = Map.Entry.<Long, Double>comparingByValue()
+                .thenComparing(Map.Entry.comparingByKey());
+        PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(k + 1, byScore);
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            top.offer(entry);
+            if (top.size() > k) top.poll();
+        }
+        List<Long> ids = new ArrayList<>(top.size());
+        while (!top.isEmpty()) ids.add(top.poll().getKey());
+        Collections.reverse(ids);
+        return ids;
+    }
+
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDelete()) {
+            apply(new Change(event.productId(), null));
+        } else {
+            ProductDTO p = event.current();
+            apply(new Change(event.productId(), analyze(p.getName(), p.getDescription(), p.getCategory())));
+        }
+    }
+
+    // products carry the category name: renaming a category that has products needs every product re-indexed
+    @TransactionalEventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        if (event.productsAffected()) rebuildOnStartup();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        CompletableFuture.runAsync(this::rebuild)
+                .exceptionally(e -> {
+                    log.error("Product search index rebuild failed", e);
+                    return null;
+                });
+    }
+
+    /**
+     * Rebuilds the whole index from the database. Searches keep using the previous
+     * segment until the new one is swapped in.
+     */
+    public synchronized void rebuild() { // one rebuild at a time (pendingDuringRebuild is shared)
+        long started = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Segment fresh = new Segment();
+        boolean completed = false;
+        try {
+            long lastId = 0;
+            while (true) {
+                List<ProductTextView> page = productRepository.findByIdGreaterThanOrderByIdAsc(lastId,
+                        PageRequest.of(0, REBUILD_PAGE_SIZE), ProductTextView.class);
+                if (page.isEmpty()) break;
+                categoryLookup.preload(page.stream().map(ProductTextView::getCategoryId).collect(Collectors.toSet()));
+                // tokenizing is the expensive part: spread it over the common pool
+                List<Map<String, Integer>> analyzed = page.parallelStream()
+                        .map(v -> analyze(v.getName(), v.getDescription(), categoryLookup.nameOf(v.getCategoryId())))
+                        .toList();
+                for (int i = 0; i < page.size(); i++) {
+                    fresh.add(page.get(i).getId(), analyzed.get(i));
+                }
+                lastId = page.get(page.size() - 1).getId();
+            }
+            completed = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                // on failure keep serving the previous segment
+                if (completed) {
+                    pendingDuringRebuild.forEach(fresh::apply);
+                    index = fresh;
+                }
+                pendingDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("Product search index rebuilt: {} products in {} ms", fresh.docs.size(),
+                System.currentTimeMillis() - started);
+    }
+
+    private void apply(Change change) {
+        lock.writeLock().lock();
+        try {
+            if (pendingDuringRebuild != null) pendingDuringRebuild.add(change);
+            index.apply(change);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Lower-cases, strips accents and splits on anything that is not a letter or digit
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) return List.of();
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(folded)) {
+            if (!token.isEmpty() && !STOPWORDS.contains(token)) tokens.add(token);
+        }
+        return tokens;
+    }
+
+    private static Map<String, Integer> analyze(String name, String description, String category) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        tokenize(name).forEach(t -> frequencies.merge(t, NAME_WEIGHT, Integer::sum));
+        tokenize(category).forEach(t -> frequencies.merge(t, CATEGORY_WEIGHT, Integer::sum));
+        tokenize(description).forEach(t -> frequencies.merge(t, DESCRIPTION_WEIGHT, Integer::sum));
+        return frequencies;
+    }
+
+    // terms == null means the product was deleted
+    private record Change(Long id, Map<String, Integer> terms) {
+    }
+
+    private record Doc(Map<String, Integer> terms, int length) {
+    }
+
+    /**
+     * One immutable-by-convention generation of the index (mutated only under the write lock)
+     */
+    private static final class Segment {
+        private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+        private final Map<Long, Doc> docs = new HashMap<>();
+        private long totalLength;
+
+        void apply(Change change) {
+            remove(change.id());
+            if (change.terms() != null) add(change.id(), change.terms());
+        }
+
+        void add(Long id, Map<String, Integer> terms) {
+            remove(id);
+            int length = 0;
+            for (Map.Entry<String, Integer> term : terms.entrySet()) {
+                postings.computeIfAbsent(term.getKey(), t -> new HashMap<>()).put(id, term.getValue());
+                length += term.getValue();
+            }
+            docs.put(id, new Doc(terms, length));
+            totalLength += length;
+        }
+
+        void remove(Long id) {
+            Doc doc = docs.remove(id);
+            if (doc == null) return;
+            for (String term : doc.terms().keySet()) {
+                Map<Long, Integer> list = postings.get(term);
+                if (list == null) continue;
+                list.remove(id);
+                if (list.isEmpty()) postings.remove(term);
+            }
+            totalLength -= doc.length();
+        }
+
+        Collection<String> expand(String prefix) {
+            List<String> terms = new ArrayList<>();
+            for (String term : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).keySet()) {
+                terms.add(term);
+                if (terms.size() >= MAX_PREFIX_EXPANSIONS) break;
+            }
+            return terms;
+        }
+    }
+}
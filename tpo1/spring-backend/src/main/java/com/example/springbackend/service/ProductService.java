@@ -1,16 +1,37 @@
 package com.example.springbackend.service;
 
+import com.example.springbackend.config.CacheConfig;
 import com.example.springbackend.model.Product;
+import com.example.springbackend.dto.CursorPageDTO;
+import com.example.springbackend.dto.FacetResultDTO;
 import com.example.springbackend.dto.ProductDTO;
+import com.example.springbackend.dto.StockPatchDTO;
+import com.example.springbackend.exception.BadRequestException;
+import com.example.springbackend.exception.ConflictException;
+import com.example.springbackend.exception.PreconditionFailedException;
+import com.example.springbackend.exception.ResourceNotFoundException;
 import com.example.springbackend.mapping.ProductMapper;
+import com.example.springbackend.repository.FieldProjectionRepository;
 import com.example.springbackend.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import com.example.springbackend.model.Usuario;
 import java.util.stream.Collectors;
 
@@ -25,34 +46,260 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
+    private final ImageStorageService imageStorageService;
+    private final FieldProjectionRepository fieldProjectionRepository;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductFacetIndex productFacetIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InventoryEngine inventoryEngine;
+    private final CategoryLookup categoryLookup;
+
+    // PATCH /products/{id}/stock with delta and a stale If-Match: retry on the current version instead of 412
+    @Value("${products.stock-delta.retry-on-conflict:true}")
+    private boolean retryStockDeltas;
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // Fields that can be requested with ?fields= (same names as ProductDTO)
+    public static final Set<String> PRODUCT_FIELDS = Set.of(
+            "id", "name", "price", "category", "categoryId", "description", "image", "stock", "createdAt", "userId",
+            "version");
 
     /**
      * Get all products
      */
     public List<ProductDTO> findAll() {
-        System.out.println(">>> PRODUCT MAPPER CLASS = " + productMapper.getClass().getName());
-        System.out.println(">>> MAPPER INSTANCE = " + productMapper);
+        return productMapper.toDtoList(productRepository.findAll());
+    }
+
+    /**
+     * Get one page of products (newest first) using keyset pagination.
+     * cursor is the opaque value returned as nextCursor by the previous page (null for the first page).
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ProductDTO> findPage(String cursor, int limit, boolean withTotal) {
+        Pageable window = window(limit);
+        List<Product> products;
+        if (cursor == null) {
+            products = productRepository.findAllByOrderByCreatedAtDescIdDesc(window);
+        } else {
+            ProductCursor after = ProductCursor.decode(cursor);
+            products = productRepository.findPageAfter(after.createdAt(), after.id(), window);
+        }
+        Long total = withTotal ? productRepository.count() : null;
+        return toPage(products, limit, total);
+    }
+
+    /**
+     * Same as findPage but restricted to one category
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ProductDTO> findPageByCategory(String category, String cursor, int limit, boolean withTotal) {
+        Pageable window = window(limit);
+        // the name is resolved once (cached map); the query filters on the indexed category_id
+        Long categoryId = categoryLookup.idOf(category);
+        if (categoryId == null) {
+            return new CursorPageDTO<>(List.of(), null, withTotal ? 0L : null);
+        }
+        List<Product> products;
+        if (cursor == null) {
+            products = productRepository.findByCategoryIdOrderByCreatedAtDescIdDesc(categoryId, window);
+        } else {
+            ProductCursor after = ProductCursor.decode(cursor);
+            products = productRepository.findPageByCategoryIdAfter(categoryId, after.createdAt(), after.id(), window);
+        }
+        Long total = withTotal ? productRepository.countByCategoryId(categoryId) : null;
+        return toPage(products, limit, total);
+    }
+
+    /**
+     * Same as findPage but restricted to the products of one user
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ProductDTO> findPageByUserId(Long userId, String cursor, int limit, boolean withTotal) {
+        Pageable window = window(limit);
+        List<Product> products;
+        if (cursor == null) {
+            products = productRepository.findByUserIdOrderByCreatedAtDescIdDesc(userId, window);
+        } else {
+            ProductCursor after = ProductCursor.decode(cursor);
+            products = productRepository.findPageByUserIdAfter(userId, after.createdAt(), after.id(), window);
+        }
+        Long total = withTotal ? productRepository.countByUserId(userId) : null;
+        return toPage(products, limit, total);
+    }
+
+    /**
+     * Filtered and sorted listing (GET /products?minPrice=&maxPrice=&inStock=&category=&sellerId=&sort=).
+     * The WHERE clause is built from the filter as a JPA Specification.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductDTO> findFiltered(ProductFilter filter, ProductSort sort) {
+        return productMapper.toDtoList(productRepository.findAll(filter.toSpecification(categoryLookup), sort.toSort()));
+    }
+
+    /**
+     * Same as findFiltered, one page at a time: keyset pagination over (sort key, id)
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ProductDTO> findFilteredPage(ProductFilter filter, ProductSort sort, String cursor,
+            int limit, boolean withTotal) {
+        Specification<Product> spec = filter.toSpecification(categoryLookup);
+        Specification<Product> seek = cursor == null ? spec : Specification.where(spec).and(sort.after(cursor));
+        List<Product> products = productRepository.findWindow(seek, sort.toSort(), window(limit).getPageSize());
+
+        boolean hasMore = products.size() > limit;
+        List<Product> items = hasMore ? products.subList(0, limit) : products;
+        String next = hasMore ? sort.cursorOf(items.get(items.size() - 1)) : null;
+        Long total = withTotal ? productRepository.count(spec) : null;
+        return new CursorPageDTO<>(productMapper.toDtoList(items), next, total);
+    }
+
+    /**
+     * Sparse fieldset listing: only the requested columns are selected (no entities are loaded).
+     * sort null keeps the id order.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findFields(List<String> fields, ProductFilter filter, ProductSort sort) {
+        List<String> requested = validateFields(fields);
+        List<Map<String, Object>> rows = fieldProjectionRepository.findFields(Product.class, selectedColumns(requested),
+                filter.toSpecification(categoryLookup), sort == null ? Sort.by("id") : sort.toSort(), null);
+        for (Map<String, Object> row : rows) {
+            toResponseFields(row, requested);
+        }
+        return rows;
+    }
+
+    /**
+     * Sparse fieldset listing with keyset pagination (same ordering and cursor as findFilteredPage)
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<Map<String, Object>> findFieldsPage(List<String> fields, ProductFilter filter,
+            ProductSort sort, String cursor, int limit, boolean withTotal) {
+        List<String> requested = validateFields(fields);
+        // id and the sort key build the next cursor, so they are always selected
+        Set<String> selected = selectedColumns(requested);
+        selected.add("id");
+        selected.add(sort.property());
+
+        Specification<Product> spec = filter.toSpecification(categoryLookup);
+        Specification<Product> seek = cursor == null ? spec : Specification.where(spec).and(sort.after(cursor));
+        List<Map<String, Object>> rows = fieldProjectionRepository.findFields(Product.class, selected, seek,
+                sort.toSort(), window(limit).getPageSize());
+
+        boolean hasMore = rows.size() > limit;
+        List<Map<String, Object>> items = hasMore ? rows.subList(0, limit) : rows;
+        String next = null;
+        if (hasMore) {
+            Map<String, Object> last = items.get(items.size() - 1);
+            next = sort.cursorOf(last.get(sort.property()), (Long) last.get("id"));
+        }
+        for (Map<String, Object> row : items) {
+            toResponseFields(row, requested);
+        }
+        Long total = withTotal ? productRepository.count(spec) : null;
+        return new CursorPageDTO<>(items, next, total);
+    }
+
+    private static List<String> validateFields(List<String> fields) {
+        List<String> selected = fields.stream().map(String::trim).filter(f -> !f.isEmpty()).distinct().toList();
+        if (selected.isEmpty()) {
+            throw new BadRequestException("fields must not be empty");
+        }
+        for (String field : selected) {
+            if (!PRODUCT_FIELDS.contains(field)) {
+                throw new BadRequestException("Unknown product field: " + field);
+            }
+        }
+        return selected;
+    }
+
+    // "category" (the name) is not a column: it is selected as categoryId and resolved by CategoryLookup
+    private static Set<String> selectedColumns(List<String> requested) {
+        Set<String> selected = new LinkedHashSet<>();
+        for (String field : requested) {
+            selected.add(field.equals("category") ? "categoryId" : field);
+        }
+        return selected;
+    }
+
+    private void toResponseFields(Map<String, Object> row, List<String> requested) {
+        if (requested.contains("category")) {
+            row.put("category", categoryLookup.nameOf((Long) row.get("categoryId")));
+        }
+        row.keySet().retainAll(requested);
+        if (row.containsKey("image")) {
+            row.put("image", imageStorageService.toPublicUrl((String) row.get("image")));
+        }
+    }
+
+    // Fetch one extra row to know whether there is a next page without a COUNT query
+    private Pageable window(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return PageRequest.of(0, limit + 1);
+    }
+
+    private CursorPageDTO<ProductDTO> toPage(List<Product> products, int limit, Long total) {
+        boolean hasMore = products.size() > limit;
+        List<Product> items = hasMore ? products.subList(0, limit) : products;
+        String next = hasMore ? ProductCursor.of(items.get(items.size() - 1)).encode() : null;
+        return new CursorPageDTO<>(productMapper.toDtoList(items), next, total);
+    }
 
-        List<Product> products = productRepository.findAll();
-        products.forEach(p -> {
-            System.out.println("ENTITY => id=" + p.getId() + ", name=" + p.getName() + ", price=" + p.getPrice());
-        });
+    /**
+     * Full-text search over name, description and category (BM25 ranked, best first)
+     */
+    @Transactional(readOnly = true)
+    public List<ProductDTO> search(String query, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        List<Long> ids = productSearchIndex.search(query, limit);
+        if (ids.isEmpty()) return List.of();
+        Map<Long, Product> byId = productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getId, p -> p));
+        // keep the ranking order; skip ids deleted since they were indexed
+        return ids.stream().map(byId::get).filter(p -> p != null).map(productMapper::toDto).toList();
+    }
 
-        // Test single mapping first
-        if (!products.isEmpty()) {
-            Product first = products.get(0);
-            ProductDTO testDto = productMapper.toDto(first);
-            System.out.println("SINGLE MAPPING TEST => " + testDto);
+    /**
+     * Faceted filtering: matching products plus counts per category, price bucket, stock flag and seller.
+     * Null or empty filters are ignored; values inside one filter are OR-ed, filters are AND-ed.
+     */
+    @Transactional(readOnly = true)
+    public FacetResultDTO facets(List<String> categories, List<String> priceBuckets, Boolean inStock,
+            List<Long> sellerIds, int limit) {
+        if (limit < 0 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 0 and " + MAX_PAGE_SIZE);
+        }
+        Map<String, Set<String>> filters = new HashMap<>();
+        if (categories != null) filters.put(ProductFacetIndex.CATEGORY, Set.copyOf(categories));
+        if (priceBuckets != null) filters.put(ProductFacetIndex.PRICE, Set.copyOf(priceBuckets));
+        if (inStock != null) filters.put(ProductFacetIndex.IN_STOCK, Set.of(inStock.toString()));
+        if (sellerIds != null) {
+            filters.put(ProductFacetIndex.SELLER,
+                    sellerIds.stream().map(String::valueOf).collect(Collectors.toSet()));
         }
 
-        List<ProductDTO> dtos = productMapper.toDtoList(products);
-        System.out.println("MAPPED DTOs => " + dtos);
-        return dtos;
+        ProductFacetIndex.Result result = productFacetIndex.query(filters, limit);
+        List<ProductDTO> products = List.of();
+        if (!result.ids().isEmpty()) {
+            Map<Long, Product> byId = productRepository.findAllById(result.ids()).stream()
+                    .collect(Collectors.toMap(Product::getId, p -> p));
+            products = result.ids().stream().map(byId::get).filter(p -> p != null).map(productMapper::toDto).toList();
+        }
+        return new FacetResultDTO(result.total(), products, result.facets());
     }
 
     /**
-     * Get product by ID
+     * Get product by ID (cached, evicted by CatalogCacheInvalidator).
+     * Returns the cached instance: callers copy it before changing or handing it out.
      */
+    @Cacheable(cacheNames = CacheConfig.PRODUCT_BY_ID, key = "#id")
+    @Transactional(readOnly = true)
     public ProductDTO findById(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Producto no encontrado"));
@@ -60,11 +307,16 @@ public class ProductService {
     }
 
     /**
-     * Find products by category
+     * Find products by category (cached, evicted by CatalogCacheInvalidator).
+     * Returns the cached instances, in an unmodifiable list: callers copy them before handing them out.
      */
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS_BY_CATEGORY, key = "#category")
+    @Transactional(readOnly = true)
     public List<ProductDTO> findByCategory(String category) {
-        List<Product> products = productRepository.findByCategory(category);
-        return productMapper.toDtoList(products);
+        Long categoryId = categoryLookup.idOf(category);
+        if (categoryId == null) return List.of();
+        List<Product> products = productRepository.findByCategoryId(categoryId);
+        return List.copyOf(productMapper.toDtoList(products));
     }
 
     /**
@@ -72,38 +324,218 @@ public class ProductService {
      */
     public ProductDTO create(ProductDTO productDto) {
         Product product = productMapper.toEntity(productDto);
+        // createdAt is part of the pagination key, so it must never be null
+        if (product.getCreatedAt() == null) {
+            product.setCreatedAt(Instant.now());
+        }
         Product saved = productRepository.save(product);
-        return productMapper.toDto(saved);
+        ProductDTO created = productMapper.toDto(saved);
+        eventPublisher.publishEvent(new ProductChangedEvent(saved.getId(), null, created));
+        return created;
     }
 
     /**
-     * Update an existing product
+     * Update an existing product, only if it is still at expectedVersion (If-Match; null = no check).
+     * Hibernate also checks the version when flushing, so a concurrent write in between ends in 412.
+     * A hot product keeps its memory-backed stock: sending another stock answers 409, as PATCH does.
      */
-    public ProductDTO update(Long id, ProductDTO productDto) {
+    public ProductDTO update(Long id, ProductDTO productDto, Long expectedVersion) {
         Product product = productMapper.toEntity(productDto);
-        Product savedProduct = productRepository.findById(id)
-                .map(existingProduct -> {
-                    existingProduct.setName(product.getName());
-                    existingProduct.setPrice(product.getPrice());
-                    existingProduct.setCategory(product.getCategory());
-                    existingProduct.setDescription(product.getDescription());
-                    existingProduct.setImage(product.getImage());
-                    existingProduct.setStock(product.getStock());
-                    return productRepository.save(existingProduct);
-                }).orElse(null);
+        ProductDTO previous = productRepository.findDtoById(id).orElse(null);
+        if (previous == null) return null;
+        checkVersion(previous.getVersion(), expectedVersion, id);
+        boolean stockChanged = product.getStock() != null && !product.getStock().equals(previous.getStock());
+        if (stockChanged && inventoryEngine.isHot(id)) {
+            throw new ConflictException("Stock of product " + id + " is memory-backed: use PATCH /products/"
+                    + id + "/stock with delta");
+        }
 
-        return savedProduct != null ? productMapper.toDto(savedProduct) : null;
+        // guarded by the version just read (and hot = false for the stock, which is memory-backed otherwise):
+        // a concurrent write or promotion makes it match nothing instead of overwriting newer values
+        if (productRepository.updateDetails(id, previous.getVersion(), product.getName(), product.getPrice(),
+                product.getCategoryId(), product.getDescription(), product.getImage(), product.getStock()) == 0) {
+            throw PreconditionFailedException.staleVersion("Product", id);
+        }
+        ProductDTO current = productRepository.findDtoById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
+        if (stockChanged && !product.getStock().equals(current.getStock())) {
+            // promoted between the check and the UPDATE: the CASE kept the stock, roll the other columns back too
+            throw new ConflictException("Stock of product " + id + " became memory-backed meanwhile, retry");
+        }
+        return publishPatched(id, previous, current);
     }
 
     /**
-     * Delete a product
+     * Partial update with JSON Merge Patch semantics (RFC 7396): only the members present in the patch
+     * change, null clears optional fields. Runs one targeted UPDATE of those columns; the entity is never loaded.
      */
-    public boolean delete(Long id) {
-        if (productRepository.existsById(id)) {
-            productRepository.deleteById(id);
-            return true;
+    public ProductDTO patch(Long id, Map<String, Object> patch, Long expectedVersion) {
+        Map<String, Object> values = new HashMap<>();
+        patch.forEach((field, value) -> values.put(patchAttribute(field), patchValue(field, value)));
+        if (values.containsKey("stock") && inventoryEngine.isHot(id)) {
+            throw new ConflictException("Stock of product " + id + " is memory-backed: use PATCH /products/"
+                    + id + "/stock with delta");
         }
-        return false;
+
+        ProductDTO previous = productRepository.findDtoById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
+        checkVersion(previous.getVersion(), expectedVersion, id);
+        if (values.isEmpty()) {
+            previous.setImage(imageStorageService.toPublicUrl(previous.getImage()));
+            return previous;
+        }
+        if (fieldProjectionRepository.updateFields(Product.class, id, expectedVersion, values) == 0) {
+            throw PreconditionFailedException.staleVersion("Product", id);
+        }
+        // the row is locked by the UPDATE until commit: this read is the state we commit
+        ProductDTO current = productRepository.findDtoById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
+        return publishPatched(id, previous, current);
+    }
+
+    /**
+     * Stock-only update: delta adds (or subtracts) units, set replaces the value.
+     * A delta that would leave the stock below zero is rejected with 409 and changes nothing.
+     */
+    public ProductDTO patchStock(Long id, StockPatchDTO stockPatch, Long expectedVersion) {
+        Integer delta = stockPatch.getDelta();
+        Integer set = stockPatch.getSet();
+        if ((delta == null) == (set == null)) {
+            throw new BadRequestException("Send exactly one of delta or set");
+        }
+        if (set != null && set < 0) {
+            throw new BadRequestException("stock must be >= 0");
+        }
+
+        if (inventoryEngine.isHot(id)) {
+            return patchHotStock(id, delta, set);
+        }
+
+        // UPDATE first: the row stays locked until commit, so the re-read below is consistent
+        int updated;
+        if (delta == null) {
+            updated = productRepository.setStock(id, set, expectedVersion);
+        } else if (expectedVersion == null) {
+            updated = productRepository.addStock(id, delta);
+        } else {
+            updated = productRepository.addStockIfVersion(id, delta, expectedVersion);
+            if (updated == 0 && retryStockDeltas) {
+                // a delta commutes with whatever changed the version: retry it on the current row instead of 412
+                updated = productRepository.addStock(id, delta);
+            }
+        }
+        ProductDTO current = productRepository.findDtoById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
+        if (updated == 0) {
+            // stock first: with a stale If-Match too, the retry (or a fresh read) would still be refused for it
+            if (delta != null && (current.getStock() == null || current.getStock() + delta < 0)) {
+                throw new ConflictException("Insufficient stock for product " + id + " (available: "
+                        + current.getStock() + ")");
+            }
+            if (expectedVersion != null && !expectedVersion.equals(current.getVersion())) {
+                throw PreconditionFailedException.staleVersion("Product", id);
+            }
+            throw new ConflictException("Stock of product " + id + " became memory-backed meanwhile, retry");
+        }
+        ProductDTO previous = copyOf(current);
+        previous.setStock(delta != null ? current.getStock() - delta : null); // unknown after an absolute set
+        return publishPatched(id, previous, current);
+    }
+
+    private ProductDTO patchHotStock(Long id, Integer delta, Integer set) {
+        if (set != null) {
+            throw new ConflictException("Stock of product " + id + " is memory-backed: only delta is supported");
+        }
+        InventoryEngine.Outcome outcome = inventoryEngine.adjust(id, delta);
+        if (outcome == InventoryEngine.Outcome.NOT_HOT) {
+            return patchStock(id, new StockPatchDTO(delta, null), null); // demoted meanwhile
+        }
+        if (outcome == InventoryEngine.Outcome.UNAVAILABLE) {
+            throw new ConflictException("Product " + id + " is being switched to DB-backed stock, retry");
+        }
+        if (outcome != InventoryEngine.Outcome.RESERVED) {
+            throw new ConflictException("Insufficient stock for product " + id + " (available: "
+                    + inventoryEngine.available(id) + ")");
+        }
+        inventoryEngine.flushCommitted(); // writes products.stock and publishes the events
+        ProductDTO current = productRepository.findDtoById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
+        current.setImage(imageStorageService.toPublicUrl(current.getImage()));
+        Integer available = inventoryEngine.available(id);
+        if (available != null) current.setStock(available);
+        return current;
+    }
+
+    private static void checkVersion(Long currentVersion, Long expectedVersion, Long id) {
+        if (expectedVersion != null && !expectedVersion.equals(currentVersion)) {
+            throw PreconditionFailedException.staleVersion("Product", id);
+        }
+    }
+
+    // both "category" (name) and "categoryId" write the category_id column
+    private static String patchAttribute(String field) {
+        return field.equals("category") ? "categoryId" : field;
+    }
+
+    private Object patchValue(String field, Object value) {
+        switch (field) {
+            case "name", "category" -> {
+                if (!(value instanceof String text) || text.isBlank()) {
+                    throw new BadRequestException(field + " must be a non-empty string");
+                }
+                return field.equals("category") ? categoryLookup.resolve(null, text) : text;
+            }
+            case "categoryId" -> {
+                if (!(value instanceof Number number) || number.doubleValue() != number.longValue()) {
+                    throw new BadRequestException("categoryId must be an integer");
+                }
+                return categoryLookup.resolve(number.longValue(), null);
+            }
+            case "description" -> {
+                if (value != null && !(value instanceof String)) {
+                    throw new BadRequestException("description must be a string or null");
+                }
+                return value;
+            }
+            case "image" -> {
+                if (value != null && !(value instanceof String)) {
+                    throw new BadRequestException("image must be a string or null");
+                }
+                return imageStorageService.toStoredReference((String) value);
+            }
+            case "price", "stock" -> {
+                if (!(value instanceof Number number) || number.doubleValue() != number.intValue()
+                        || number.intValue() < 0) {
+                    throw new BadRequestException(field + " must be a non-negative integer");
+                }
+                return number.intValue();
+            }
+            default -> throw new BadRequestException("Field cannot be patched: " + field);
+        }
+    }
+
+    private ProductDTO publishPatched(Long id, ProductDTO previous, ProductDTO current) {
+        // findDtoById returns the stored image reference; events and responses carry the public URL
+        previous.setImage(imageStorageService.toPublicUrl(previous.getImage()));
+        current.setImage(imageStorageService.toPublicUrl(current.getImage()));
+        eventPublisher.publishEvent(new ProductChangedEvent(id, previous, current));
+        return current;
+    }
+
+    private static ProductDTO copyOf(ProductDTO p) {
+        return p.toBuilder().build();
+    }
+
+    /**
+     * Delete a product, only if it is still at expectedVersion (If-Match; null = no check)
+     */
+    public boolean delete(Long id, Long expectedVersion) {
+        Optional<Product> opt = productRepository.findById(id);
+        if (opt.isEmpty())
+            return false;
+        checkVersion(opt.get().getVersion(), expectedVersion, id);
+        deleteAndPublish(opt.get());
+        return true;
     }
 
     /**
@@ -120,20 +552,26 @@ public class ProductService {
         // Allow if admin
         boolean isAdmin = usuario.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
         if (isAdmin) {
-            productRepository.deleteById(id);
+            deleteAndPublish(product);
             return true;
         }
 
         // Allow if owner
         Long ownerId = product.getUserId();
         if (ownerId != null && usuario.getId() != null && ownerId.equals(usuario.getId())) {
-            productRepository.deleteById(id);
+            deleteAndPublish(product);
             return true;
         }
 
         return false;
     }
 
+    private void deleteAndPublish(Product product) {
+        ProductDTO previous = productMapper.toDto(product);
+        productRepository.delete(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(product.getId(), previous, null));
+    }
+
     /**
      * Check if product exists
      */
@@ -160,7 +598,8 @@ public class ProductService {
     public java.util.List<com.example.springbackend.dto.ProductDTO> findAllManual() {
         java.util.List<Product> products = productRepository.findAll();
         return products.stream().map(p -> new com.example.springbackend.dto.ProductDTO(
-                p.getId(), p.getName(), p.getPrice(), p.getCategory(), p.getDescription(), p.getImage(),
-                p.getStock(), p.getCreatedAt(), p.getUserId())).collect(Collectors.toList());
+                p.getId(), p.getName(), p.getPrice(), categoryLookup.nameOf(p.getCategoryId()), p.getCategoryId(),
+                p.getDescription(), imageStorageService.toPublicUrl(p.getImage()),
+                p.getStock(), p.getCreatedAt(), p.getUserId(), p.getVersion())).collect(Collectors.toList());
     }
 }
@@ -0,0 +1,127 @@
+package com.example.springbackend.service;
+
+import com.example.springbackend.exception.BadRequestException;
+import com.example.springbackend.model.Product;
+import jakarta.persistence.criteria.Path;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Orderings accepted by GET /products?sort= ("-" = descending). id is always the tie-breaker, so
+ * (key, id) is unique and can be used as a keyset cursor for any of them.
+ * The cursor is base64url("v{key}|{id}"), or base64url("|{id}") when the key of the last row is null.
+ */
+public enum ProductSort {
+    NEWEST("-createdAt", "createdAt", "created_at", Sort.Direction.DESC, Instant::parse),
+    OLDEST("createdAt", "createdAt", "created_at", Sort.Direction.ASC, Instant::parse),
+    PRICE("price", "price", "price", Sort.Direction.ASC, Integer::valueOf),
+    PRICE_DESC("-price", "price", "price", Sort.Direction.DESC, Integer::valueOf),
+    NAME("name", "name", "name", Sort.Direction.ASC, Function.identity()),
+    NAME_DESC("-name", "name", "name", Sort.Direction.DESC, Function.identity());
+
+    private final String param;
+    private final String property;
+    private final String column;
+    private final Sort.Direction direction;
+    private final Function<String, ? extends Comparable<?>> keyParser;
+
+    ProductSort(String param, String property, String column, Sort.Direction direction,
+            Function<String, ? extends Comparable<?>> keyParser) {
+        this.param = param;
+        this.property = property;
+        this.column = column;
+        this.direction = direction;
+        this.keyParser = keyParser;
+    }
+
+    /**
+     * Parses the sort query parameter; null or blank means newest first (the default listing order)
+     */
+    public static ProductSort parse(String value) {
+        if (value == null || value.isBlank()) return NEWEST;
+        for (ProductSort sort : values()) {
+            if (sort.param.equals(value.trim())) return sort;
+        }
+        throw new BadRequestException("Unsupported sort: " + value + " (expected one of "
+                + Arrays.stream(values()).map(s -> s.param).collect(Collectors.joining(", ")) + ")");
+    }
+
+    public String param() {
+        return param;
+    }
+
+    public String property() {
+        return property;
+    }
+
+    public String column() {
+        return column;
+    }
+
+    public Sort.Direction direction() {
+        return direction;
+    }
+
+    public Sort toSort() {
+        return Sort.by(direction, property, "id");
+    }
+
+    String cursorOf(Product product) {
+        Object key = switch (property) {
+            case "createdAt" -> product.getCreatedAt();
+            case "price" -> product.getPrice();
+            default -> product.getName();
+        };
+        return cursorOf(key, product.getId());
+    }
+
+    String cursorOf(Object key, Long id) {
+        String raw = (key == null ? "" : "v" + key) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Seek predicate: rows strictly after the cursor in this ordering.
+     * Assumes MySQL null ordering (NULL sorts lowest: first when ascending, last when descending).
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    Specification<Product> after(String cursor) {
+        Comparable key;
+        Long id;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            if (sep < 0 || (sep > 0 && raw.charAt(0) != 'v')) throw new BadRequestException("Invalid cursor");
+            key = sep == 0 ? null : keyParser.apply(raw.substring(1, sep));
+            id = Long.valueOf(raw.substring(sep + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        boolean ascending = direction.isAscending();
+        return (root, query, cb) -> {
+            Path<Comparable> path = root.get(property);
+            Path<Long> idPath = root.get("id");
+            if (key == null) {
+                // ascending: the null block comes first, then every non-null key; descending: nulls are last
+                return ascending
+                        ? cb.or(cb.and(cb.isNull(path), cb.greaterThan(idPath, id)), cb.isNotNull(path))
+                        : cb.and(cb.isNull(path), cb.lessThan(idPath, id));
+            }
+            if (ascending) {
+                return cb.or(cb.greaterThan(path, key),
+                        cb.and(cb.equal(path, key), cb.greaterThan(idPath, id)));
+            }
+            return cb.or(cb.lessThan(path, key),
+                    cb.and(cb.equal(path, key), cb.lessThan(idPath, id)),
+                    cb.isNull(path));
+        };
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.springbackend.service;
+
+import com.example.springbackend.dto.CategoryDTO;
+import com.example.springbackend.dto.ProductDTO;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Readable;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reactive Catalog Service
+ * Non-blocking reads of the public catalog over R2DBC, for the reactive read path
+ * (ReactiveCatalogServer). Same rows and JSON shapes as the JDBC reads:
+ * - the category name is joined in SQL instead of going through CategoryLookup, whose misses block;
+ * - rows are decoded fetchSize at a time and emitted only as fast as the subscriber (the HTTP response)
+ *   requests them, so a slow client holds back the cursor instead of filling memory.
+ * Dates are stored in UTC (serverTimezone=UTC on the JDBC side).
+ * The R2DBC pool is built here from catalog.reactive.r2dbc.* and is deliberately not a bean: Boot's
+ * DataSourceAutoConfiguration backs off when a ConnectionFactory bean exists, which would leave JPA,
+ * Flyway and the JdbcTemplates without a DataSource (R2dbcAutoConfiguration is excluded for the same reason).
+ */
+@Service
+public class ReactiveCatalogService {
+
+    static final String PRODUCT_SELECT = "SELECT p.id, p.name, p.price, c.name AS category, p.category_id, "
+            + "p.description, p.image, p.stock, p.created_at, p.user_id, p.version "
+            + "FROM products p LEFT JOIN categories c ON c.id = p.category_id";
+    static final String CATEGORY_SELECT = "SELECT id, name, description, icon, product_count FROM categories";
+
+    private final ConnectionPool pool;
+    private final DatabaseClient client;
+    private final ImageStorageService imageStorageService;
+    private final int fetchSize;
+
+    public ReactiveCatalogService(ImageStorageService imageStorageService,
+            @Value("${catalog.reactive.r2dbc.url}") String url,
+            @Value("${catalog.reactive.r2dbc.username:}") String username,
+            @Value("${catalog.reactive.r2dbc.password:}") String password,
+            @Value("${catalog.reactive.r2dbc.pool-size:10}") int poolSize,
+            @Value("${catalog.stream.fetch-size:500}") int fetchSize) {
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+        if (!username.isEmpty()) options.option(ConnectionFactoryOptions.USER, username);
+        if (!password.isEmpty()) options.option(ConnectionFactoryOptions.PASSWORD, password);
+        // connections are opened on first use, so a disabled read path never connects
+        this.pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options.build()))
+                .initialSize(0)
+                .maxSize(poolSize)
+                .build());
+        this.client = DatabaseClient.create(pool);
+        this.imageStorageService = imageStorageService;
+        this.fetchSize = fetchSize;
+    }
+
+    @PreDestroy
+    public void close() {
+        pool.dispose();
+    }
+
+    /**
+     * Products matching the filter (same rules as ProductFilter.toSpecification), ordered by id like
+     * GET /products?stream=true, optionally after a given id (to resume a stream); at most limit rows
+     */
+    public Flux<ProductDTO> findProducts(ProductFilter filter, Long afterId, int limit) {
+        List<String> conditions = new ArrayList<>();
+        if (filter.category() != null) conditions.add("c.name = :category");
+        if (filter.minPrice() != null) conditions.add("p.price >= :minPrice");
+        if (filter.maxPrice() != null) conditions.add("p.price <= :maxPrice");
+        if (filter.inStock() != null) {
+            // a null stock counts as out of stock, as in the inStock facet
+            conditions.add(filter.inStock() ? "p.stock > 0" : "(p.stock IS NULL OR p.stock <= 0)");
+        }
+        if (filter.sellerId() != null) conditions.add("p.user_id = :sellerId");
+        if (afterId != null) conditions.add("p.id > :afterId");
+
+        StringBuilder sql = new StringBuilder(PRODUCT_SELECT);
+        if (!conditions.isEmpty()) sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        sql.append(" ORDER BY p.id");
+        sql.append(" LIMIT ").append(limit);
+
+        DatabaseClient.GenericExecuteSpec spec = client.sql(sql.toString())
+                .filter(statement -> statement.fetchSize(fetchSize));
+        if (filter.category() != null) spec = spec.bind("category", filter.category());
+        if (filter.minPrice() != null) spec = spec.bind("minPrice", filter.minPrice());
+        if (filter.maxPrice() != null) spec = spec.bind("maxPrice", filter.maxPrice());
+        if (filter.sellerId() != null) spec = spec.bind("sellerId", filter.sellerId());
+        if (afterId != null) spec = spec.bind("afterId", afterId);
+        return spec.map(this::product).all();
+    }
+
+    public Mono<ProductDTO> findProduct(Long id) {
+        return client.sql(PRODUCT_SELECT + " WHERE p.id = :id").bind("id", id).map(this::product).one();
+    }
+
+    public Flux<CategoryDTO> findCategories() {
+        return client.sql(CATEGORY_SELECT + " ORDER BY id").map(ReactiveCatalogService::category).all();
+    }
+
+    public Mono<CategoryDTO> findCategory(Long id) {
+        return client.sql(CATEGORY_SELECT + " WHERE id = :id").bind("id", id)
+                .map(ReactiveCatalogService::category).one();
+    }
+
+    private ProductDTO product(Readable row) {
+        return new ProductDTO(
+                row.get("id", Long.class),
+                row.get("name", String.class),
+                row.get("price", Integer.class),
+                row.get("category", String.class),
+                row.get("category_id", Long.class),
+                row.get("description", String.class),
+                imageStorageService.toPublicUrl(row.get("image", String.class)),
+                row.get("stock", Integer.class),
+                instant(row.get("created_at", LocalDateTime.class)),
+                row.get("user_id", Long.class),
+                row.get("version", Long.class));
+    }
+
+    private static CategoryDTO category(Readable row) {
+        return new CategoryDTO(
+                row.get("id", Long.class),
+                row.get("name", String.class),
+                row.get("description", String.class),
+                row.get("icon", String.class),
+                row.get("product_count", Integer.class));
+    }
+
+    private static Instant instant(LocalDateTime value) {
+        return value != null ? value.toInstant(ZoneOffset.UTC) : null;
+    }
+}
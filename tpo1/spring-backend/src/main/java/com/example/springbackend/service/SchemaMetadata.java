@@ -0,0 +1,96 @@
+package com.example.springbackend.service;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Schema Metadata
+ * Table / column / index / foreign key lookups through JDBC DatabaseMetaData, scoped to the connection's own
+ * catalog and schema. Works on MySQL and on H2 (fast-start training, load tests), where DATABASE() names the
+ * catalog instead of the schema and information_schema filters on it match nothing.
+ * Names are given in lower case and converted to the case the database stores identifiers in.
+ */
+public final class SchemaMetadata {
+
+    private SchemaMetadata() {
+    }
+
+    public static boolean hasTable(Connection connection, String table) throws SQLException {
+        DatabaseMetaData meta = connection.getMetaData();
+        try (ResultSet rs = meta.getTables(connection.getCatalog(), connection.getSchema(),
+                pattern(meta, table), null)) {
+            return rs.next();
+        }
+    }
+
+    public static boolean hasColumn(Connection connection, String table, String column) throws SQLException {
+        return columnType(connection, table, column) != null;
+    }
+
+    /**
+     * java.sql.Types code of the column, or null when it does not exist
+     */
+    public static Integer columnType(Connection connection, String table, String column) throws SQLException {
+        DatabaseMetaData meta = connection.getMetaData();
+        try (ResultSet rs = meta.getColumns(connection.getCatalog(), connection.getSchema(),
+                pattern(meta, table), pattern(meta, column))) {
+            return rs.next() ? rs.getInt("DATA_TYPE") : null;
+        }
+    }
+
+    public static boolean hasForeignKey(Connection connection, String table, String name) throws SQLException {
+        DatabaseMetaData meta = connection.getMetaData();
+        try (ResultSet rs = meta.getImportedKeys(connection.getCatalog(), connection.getSchema(),
+                identifier(meta, table))) {
+            while (rs.next()) {
+                if (name.equalsIgnoreCase(rs.getString("FK_NAME"))) return true;
+            }
+            return false;
+        }
+    }
+
+    public static boolean hasIndex(Connection connection, String table, String name) throws SQLException {
+        return !indexes(connection, table, null, name).isEmpty();
+    }
+
+    /**
+     * Names of the non-primary indexes of the table that include the column
+     */
+    public static Set<String> indexesOn(Connection connection, String table, String column) throws SQLException {
+        return indexes(connection, table, column, null);
+    }
+
+    private static Set<String> indexes(Connection connection, String table, String column, String name)
+            throws SQLException {
+        DatabaseMetaData meta = connection.getMetaData();
+        Set<String> found = new LinkedHashSet<>();
+        try (ResultSet rs = meta.getIndexInfo(connection.getCatalog(), connection.getSchema(),
+                identifier(meta, table), false, true)) {
+            while (rs.next()) {
+                String index = rs.getString("INDEX_NAME");
+                if (index == null || "PRIMARY".equalsIgnoreCase(index)) continue;
+                if (column != null && !column.equalsIgnoreCase(rs.getString("COLUMN_NAME"))) continue;
+                if (name != null && !name.equalsIgnoreCase(index)) continue;
+                found.add(index);
+            }
+        }
+        return found;
+    }
+
+    private static String identifier(DatabaseMetaData meta, String name) throws SQLException {
+        if (meta.storesUpperCaseIdentifiers()) return name.toUpperCase();
+        if (meta.storesLowerCaseIdentifiers()) return name.toLowerCase();
+        return name;
+    }
+
+    // '_' is a wildcard in metadata patterns: order_items must not match orderXitems
+    private static String pattern(DatabaseMetaData meta, String name) throws SQLException {
+        String escape = meta.getSearchStringEscape();
+        String value = identifier(meta, name);
+        return escape == null ? value : value.replace("_", escape + "_");
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.springbackend.service;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Zipf(n, exponent) sampler: rank k in [1, n] with probability proportional to 1 / k^exponent.
+ * Rejection-inversion (Hörmann & Derflinger 1996, as in Apache Commons Math): constant time and no
+ * per-rank table, so it works for millions of ranks. Immutable, shareable between threads; each
+ * thread passes its own random.
+ */
+public final class ZipfSampler {
+
+    private final int numberOfElements;
+    private final double exponent;
+    private final double hIntegralX1;
+    private final double hIntegralNumberOfElements;
+    private final double s;
+
+    public ZipfSampler(int numberOfElements, double exponent) {
+        if (numberOfElements < 1) throw new IllegalArgumentException("numberOfElements must be >= 1");
+        if (exponent <= 0) throw new IllegalArgumentException("exponent must be > 0");
+        this.numberOfElements = numberOfElements;
+        this.exponent = exponent;
+        this.hIntegralX1 = hIntegral(1.5) - 1d;
+        this.hIntegralNumberOfElements = hIntegral(numberOfElements + 0.5);
+        this.s = 2d - hIntegralInverse(hIntegral(2.5) - h(2));
+    }
+
+    /**
+     * Rank between 1 (most frequent) and numberOfElements
+     */
+    public int sample(RandomGenerator random) {
+        while (true) {
+            double u = hIntegralNumberOfElements + random.nextDouble() * (hIntegralX1 - hIntegralNumberOfElements);
+            double x = hIntegralInverse(u);
+            int k = (int) (x + 0.5);
+            if (k < 1) {
+                k = 1;
+            } else if (k > numberOfElements) {
+                k = numberOfElements;
+            }
+            if (k - x <= s || u >= hIntegral(k + 0.5) - h(k)) {
+                return k;
+            }
+        }
+    }
+
+    private double hIntegral(double x) {
+        double logX = Math.log(x);
+        return expm1OverX((1d - exponent) * logX) * logX;
+    }
+
+    private double h(double x) {
+        return Math.exp(-exponent * Math.log(x));
+    }
+
+    private double hIntegralInverse(double x) {
+        double t = x * (1d - exponent);
+        if (t < -1d) t = -1d; // rounding near the upper bound
+        return Math.exp(log1pOverX(t) * x);
+    }
+
+    private static double log1pOverX(double x) {
+        if (Math.abs(x) > 1e-8) return Math.log1p(x) / x;
+        return 1d - x * (0.5 - x * (1d / 3d - 0.25 * x));
+    }
+
+    private static double expm1OverX(double x) {
+        if (Math.abs(x) > 1e-8) return Math.expm1(x) / x;
+        return 1d + x * 0.5 * (1d + x * (1d / 3d) * (1d + 0.25 * x));
+    }
+}
@@ -0,0 +1,129 @@
+package db.migration;
+
+import com.example.springbackend.service.CategoryMigrationService;
+import com.example.springbackend.service.ImageStorageService;
+import com.example.springbackend.service.SchemaMetadata;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * V4: brings databases baselined at version 2 (created by ddl-auto=update before Flyway) up to the V1 schema,
+ * so that ddl-auto=validate accepts them:
+ * - products: category_id (filled from the category name, then fk_products_category; the old category column
+ *   and its indexes are dropped once every product is linked), hot, version, and image
+ *   as VARCHAR(1024) once the inline base64 images are moved to the blob store;
+ * - orders: version; order_items;
+ * - the V1 indexes.
+ * Every step checks the JDBC metadata of the connection's catalog / schema first (not DATABASE(), which is the
+ * catalog on H2), so on a database created by V1, MySQL or the H2 of the fast-start training, it changes nothing.
+ * Needs ImageStorageService, so it has no default constructor: Flyway's classpath scan skips it and
+ * config/FlywayConfig registers the instance (the Flyway auto-configuration applies JavaMigration beans).
+ * Runs outside a transaction: MySQL commits each DDL anyway, and the backfills commit per id range.
+ */
+public class V4__Upgrade_baseline_schema extends BaseJavaMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(V4__Upgrade_baseline_schema.class);
+
+    private static final int IMAGE_LENGTH = 1024;
+
+    private static final Map<String, String> PRODUCT_INDEXES = Map.of(
+            "idx_products_created_id", "created_at, id",
+            "idx_products_category_id_created_id", "category_id, created_at, id",
+            "idx_products_user_created_id", "user_id, created_at, id",
+            "idx_products_category_id_price_id", "category_id, price, id",
+            "idx_products_price_id", "price, id",
+            "idx_products_name_id", "name, id");
+
+    private final ImageStorageService imageStorageService;
+
+    public V4__Upgrade_baseline_schema(ImageStorageService imageStorageService) {
+        this.imageStorageService = imageStorageService;
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        JdbcTemplate jdbc = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+
+        if (!SchemaMetadata.hasColumn(connection, "products", "category_id")) {
+            jdbc.execute("ALTER TABLE products ADD COLUMN category_id BIGINT");
+        }
+        if (!SchemaMetadata.hasColumn(connection, "products", "hot")) {
+            jdbc.execute("ALTER TABLE products ADD COLUMN hot BOOLEAN DEFAULT FALSE NOT NULL");
+        }
+        if (!SchemaMetadata.hasColumn(connection, "products", "version")) {
+            jdbc.execute("ALTER TABLE products ADD COLUMN version BIGINT DEFAULT 0 NOT NULL");
+        }
+        if (!SchemaMetadata.hasColumn(connection, "orders", "version")) {
+            jdbc.execute("ALTER TABLE orders ADD COLUMN version BIGINT DEFAULT 0 NOT NULL");
+        }
+
+        CategoryMigrationService.linkCategoryIds(jdbc);
+        CategoryMigrationService.dropLegacyColumn(jdbc);
+        if (!SchemaMetadata.hasForeignKey(connection, "products", "fk_products_category")) {
+            jdbc.execute("ALTER TABLE products ADD CONSTRAINT fk_products_category "
+                    + "FOREIGN KEY (category_id) REFERENCES categories (id)");
+        }
+
+        shrinkImageColumn(connection, jdbc);
+
+        if (!SchemaMetadata.hasTable(connection, "order_items")) {
+            jdbc.execute("CREATE TABLE order_items ("
+                    + "id BIGINT NOT NULL AUTO_INCREMENT, "
+                    + "order_id BIGINT NOT NULL, "
+                    + "product_id BIGINT NOT NULL, "
+                    + "quantity INTEGER NOT NULL, "
+                    + "unit_price INTEGER NOT NULL, "
+                    + "PRIMARY KEY (id))");
+        }
+        createIndexIfMissing(connection, jdbc, "order_items", "idx_order_items_order", "order_id");
+        createIndexIfMissing(connection, jdbc, "orders", "idx_orders_created_id", "created_at, id");
+        for (Map.Entry<String, String> index : PRODUCT_INDEXES.entrySet()) {
+            createIndexIfMissing(connection, jdbc, "products", index.getKey(), index.getValue());
+        }
+    }
+
+    /**
+     * image was LONGTEXT holding base64 data URIs: those are moved to the blob store first (as
+     * ImageMigrationService does at startup), so the column can become VARCHAR(1024) without truncating them
+     */
+    private void shrinkImageColumn(Connection connection, JdbcTemplate jdbc) throws SQLException {
+        Integer type = SchemaMetadata.columnType(connection, "products", "image");
+        if (type == null || type == Types.VARCHAR) return;
+
+        List<Long> ids = jdbc.queryForList("SELECT id FROM products WHERE image LIKE 'data:%'", Long.class);
+        for (Long id : ids) {
+            String image = jdbc.queryForObject("SELECT image FROM products WHERE id = ?", String.class, id);
+            jdbc.update("UPDATE products SET image = ? WHERE id = ?", imageStorageService.toStoredReference(image), id);
+        }
+        if (!ids.isEmpty()) log.info("Moved {} inline product images to the blob store", ids.size());
+
+        int dropped = jdbc.update("UPDATE products SET image = NULL WHERE CHAR_LENGTH(image) > ?", IMAGE_LENGTH);
+        if (dropped > 0) {
+            log.warn("Cleared {} product image URLs longer than {} characters", dropped, IMAGE_LENGTH);
+        }
+        jdbc.execute("ALTER TABLE products MODIFY image VARCHAR(" + IMAGE_LENGTH + ")");
+    }
+
+    private static void createIndexIfMissing(Connection connection, JdbcTemplate jdbc, String table, String name,
+            String columns) throws SQLException {
+        if (!SchemaMetadata.hasIndex(connection, table, name)) {
+            jdbc.execute("CREATE INDEX " + name + " ON " + table + " (" + columns + ")");
+        }
+    }
+}
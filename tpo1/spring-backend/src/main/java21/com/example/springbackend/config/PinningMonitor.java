@@ -0,0 +1,103 @@
+package com.example.springbackend.config;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Carrier-thread pinning report (java21 build, threads.pinning.monitor=false to disable)
+ * A virtual thread that blocks inside a synchronized block or a native frame keeps its carrier thread;
+ * the JVM records it as a jdk.VirtualThreadPinned JFR event. This listens to those events in-process
+ * (only the ones longer than threads.pinning.threshold) and groups them by site: the first frame of our
+ * code in the stack, or the top frame when the pinning happens entirely inside a library (drivers, pool).
+ * The first event of each site is logged with its stack, and a summary per site is logged at shutdown.
+ * Running with -Djdk.tracePinnedThreads=full prints every pinning stack instead.
+ */
+@Component
+@ConditionalOnProperty(name = { "spring.threads.virtual.enabled", "threads.pinning.monitor" }, havingValue = "true",
+        matchIfMissing = true)
+public class PinningMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(PinningMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String APP_PACKAGE = "com.example.springbackend.";
+
+    private final Duration threshold;
+    private final int stackDepth;
+    private final Map<String, Site> sites = new ConcurrentHashMap<>();
+    private RecordingStream stream;
+
+    public PinningMonitor(@Value("${threads.pinning.threshold:20ms}") Duration threshold,
+            @Value("${threads.pinning.stack-depth:12}") int stackDepth) {
+        this.threshold = threshold;
+        this.stackDepth = stackDepth;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::record);
+        stream.startAsync();
+        log.info("Reporting virtual threads pinned for more than {}", threshold);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream == null) return;
+        stream.close();
+        if (sites.isEmpty()) {
+            log.info("No virtual thread pinned for more than {}", threshold);
+            return;
+        }
+        String summary = sites.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Site> e) -> e.getValue().totalNanos.get())
+                        .reversed())
+                .map(e -> String.format("%n  %6d x %8.1f ms total  %s", e.getValue().count.get(),
+                        e.getValue().totalNanos.get() / 1e6, e.getKey()))
+                .collect(Collectors.joining());
+        log.warn("Pinned virtual threads by site (count, total time):{}", summary);
+    }
+
+    private void record(RecordedEvent event) {
+        List<RecordedFrame> frames = event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames();
+        String site = frames.stream().filter(f -> f.isJavaFrame() && typeOf(f).startsWith(APP_PACKAGE))
+                .findFirst().or(() -> frames.stream().findFirst()).map(PinningMonitor::format).orElse("unknown");
+        Site stats = sites.computeIfAbsent(site, key -> new Site());
+        stats.totalNanos.addAndGet(event.getDuration().toNanos());
+        if (stats.count.incrementAndGet() == 1) {
+            String stack = frames.stream().limit(stackDepth).map(f -> "\n    at " + format(f))
+                    .collect(Collectors.joining());
+            log.warn("Virtual thread pinned for {} ms at {}{}", event.getDuration().toMillis(), site, stack);
+        }
+    }
+
+    private static String typeOf(RecordedFrame frame) {
+        return frame.getMethod().getType().getName();
+    }
+
+    private static String format(RecordedFrame frame) {
+        return typeOf(frame) + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    private static class Site {
+        final AtomicLong count = new AtomicLong();
+        final AtomicLong totalNanos = new AtomicLong();
+    }
+}
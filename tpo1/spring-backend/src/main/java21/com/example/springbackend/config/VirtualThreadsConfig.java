@@ -0,0 +1,82 @@
+package com.example.springbackend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/**
+ * Virtual threads (java21 build: mvn -Pjava21, on by default there; spring.threads.virtual.enabled=false turns it off)
+ * - Tomcat runs every request on its own virtual thread instead of the bounded platform pool, so requests
+ *   blocked on MySQL or hashing passwords no longer hold a pool thread;
+ * - applicationTaskExecutor (@Async methods, the ?stream=true / export responses) starts a virtual thread per task;
+ * - the primary DataSource (bean "dataSource") is wrapped in a ConcurrencyLimitingDataSource, because the number
+ *   of requests is no longer bounded by the thread pool (datasource.limiter.enabled=false to skip it).
+ * Pinned carrier threads are reported by PinningMonitor.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true", matchIfMissing = true)
+public class VirtualThreadsConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadsConfig.class);
+
+    // the one Boot's DataSourceAutoConfiguration defines (JPA, Flyway, the JdbcTemplates)
+    private static final String PRIMARY_DATA_SOURCE = "dataSource";
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandler() {
+        return handler -> handler.setExecutor(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-vt-", 0).factory()));
+    }
+
+    @Bean(name = { TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME })
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("task-vt-", 0).factory()));
+    }
+
+    /**
+     * Wraps the primary DataSource bean: at most datasource.limiter.max-concurrent connections checked out
+     * (0 = the size of the Hikari pool minus datasource.limiter.headroom, kept for the nested connections of
+     * permit holders, minus the stream permits), waiting up to datasource.limiter.acquire-timeout for a permit.
+     * Streams and exports use their own datasource.limiter.stream-max-concurrent permits.
+     * Other DataSources are left alone; the Hikari pool stays reachable through unwrap for metrics and health.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "datasource.limiter.enabled", havingValue = "true", matchIfMissing = true)
+    public static BeanPostProcessor concurrencyLimitingDataSource(
+            @Value("${datasource.limiter.max-concurrent:0}") int maxConcurrent,
+            @Value("${datasource.limiter.headroom:2}") int headroom,
+            @Value("${datasource.limiter.stream-max-concurrent:2}") int streamMaxConcurrent,
+            @Value("${datasource.limiter.acquire-timeout:30s}") Duration acquireTimeout) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!PRIMARY_DATA_SOURCE.equals(beanName) || !(bean instanceof DataSource dataSource)
+                        || bean instanceof ConcurrencyLimitingDataSource) {
+                    return bean;
+                }
+                int poolSize = bean instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+                int permits = maxConcurrent > 0 ? maxConcurrent
+                        : Math.max(1, poolSize - headroom - streamMaxConcurrent);
+                log.info("DataSource '{}' limited to {} + {} stream of {} connections (fair queue, {} timeout)",
+                        beanName, permits, streamMaxConcurrent, poolSize, acquireTimeout);
+                return new ConcurrencyLimitingDataSource(dataSource, permits, streamMaxConcurrent, acquireTimeout);
+            }
+        };
+    }
+}
@@ -0,0 +1,70 @@
+-- Schema as mapped by the JPA entities (startup runs ddl-auto=validate against it).
+-- Databases created earlier by ddl-auto=update already have these tables and are baselined past this script.
+
+CREATE TABLE categories (
+    id            BIGINT       NOT NULL AUTO_INCREMENT,
+    name          VARCHAR(255) NOT NULL,
+    description   VARCHAR(500),
+    icon          VARCHAR(255),
+    product_count INTEGER,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_categories_name UNIQUE (name)
+);
+
+CREATE TABLE usuarios (
+    id       BIGINT       NOT NULL AUTO_INCREMENT,
+    nombre   VARCHAR(255),
+    apellido VARCHAR(255),
+    email    VARCHAR(255),
+    password VARCHAR(255),
+    role     ENUM('USER', 'ADMIN'),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_usuarios_email UNIQUE (email)
+);
+
+CREATE TABLE products (
+    id          BIGINT        NOT NULL AUTO_INCREMENT,
+    name        VARCHAR(255),
+    price       INTEGER,
+    category_id BIGINT,
+    description VARCHAR(2000),
+    image       VARCHAR(1024),
+    stock       INTEGER,
+    created_at  DATETIME(6),
+    user_id     BIGINT,
+    hot         BOOLEAN DEFAULT FALSE NOT NULL,
+    version     BIGINT DEFAULT 0 NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_products_category FOREIGN KEY (category_id) REFERENCES categories (id)
+);
+
+-- keyset pagination (ORDER BY created_at DESC, id DESC) and the GET /products filters / sorts
+CREATE INDEX idx_products_created_id ON products (created_at, id);
+CREATE INDEX idx_products_category_id_created_id ON products (category_id, created_at, id);
+CREATE INDEX idx_products_user_created_id ON products (user_id, created_at, id);
+CREATE INDEX idx_products_category_id_price_id ON products (category_id, price, id);
+CREATE INDEX idx_products_price_id ON products (price, id);
+CREATE INDEX idx_products_name_id ON products (name, id);
+
+CREATE TABLE orders (
+    id         BIGINT NOT NULL AUTO_INCREMENT,
+    user_id    BIGINT,
+    created_at DATETIME(6),
+    total      DOUBLE,
+    status     VARCHAR(255),
+    version    BIGINT DEFAULT 0 NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_orders_created_id ON orders (created_at, id);
+
+CREATE TABLE order_items (
+    id         BIGINT  NOT NULL AUTO_INCREMENT,
+    order_id   BIGINT  NOT NULL,
+    product_id BIGINT  NOT NULL,
+    quantity   INTEGER NOT NULL,
+    unit_price INTEGER NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_order_items_order ON order_items (order_id);
@@ -0,0 +1,20 @@
+-- Demo catalog, applied once on a new database (previously data.sql, re-run on every startup).
+-- Databases that already had it are baselined at version 2 (spring.flyway.baseline-version) and skip this.
+
+-- seed categories
+INSERT INTO categories (id, name, description, icon, product_count) VALUES (1, 'Electrónicos', 'Dispositivos y gadgets tecnológicos', '📱', 0);
+INSERT INTO categories (id, name, description, icon, product_count) VALUES (2, 'Ropa', 'Vestimenta para todas las ocasiones', '👕', 0);
+INSERT INTO categories (id, name, description, icon, product_count) VALUES (3, 'Deportes', 'Artículos deportivos y de fitness', '⚽', 0);
+INSERT INTO categories (id, name, description, icon, product_count) VALUES (4, 'Libros', 'Literatura y libros educativos', '📚', 0);
+INSERT INTO categories (id, name, description, icon, product_count) VALUES (5, 'Belleza', 'Productos de cuidado personal', '💄', 0);
+INSERT INTO categories (id, name, description, icon, product_count) VALUES (6, 'Accesorios', 'Complementos y accesorios diversos', '🎒', 0);
+
+-- seed products (category_id references the categories above)
+INSERT INTO products (id, name, price, category_id, description, image, stock, created_at, user_id) VALUES (1, 'Auriculares Bluetooth Sony', 89999, 1, 'Auriculares inalámbricos con cancelación de ruido', 'https://i5.walmartimages.com/seo/SONY-MDR-XB650BT-B-Black-EXTRA-BASS-Bluetooth-Headphones_8430bb61-7c1d-406c-83c1-a4a1718422e9.06479274ba3bbc065a31a62999eb983d.jpeg', 15, '2025-01-05 10:15:00', NULL);
+INSERT INTO products (id, name, price, category_id, description, image, stock, created_at, user_id) VALUES(2, 'Camiseta Deportiva Nike', 25999, 2, 'Camiseta deportiva de alta calidad para entrenar', 'https://www.stockcenter.com.ar/on/demandware.static/-/Sites-365-dabra-catalog/default/dw314acc6b/products/NICZ1219-369/NICZ1219-369-1.JPG', 30, '2025-01-08 14:30:00', NULL);
+INSERT INTO products (id, name, price, category_id, description, image, stock, created_at, user_id) VALUES(3, 'Libro: JavaScript Avanzado', 15999, 4, 'Guía completa para dominar JavaScript moderno', 'https://http2.mlstatic.com/D_NQ_NP_980599-MLM50090461107_052022-O.webp', 8, '2025-01-12 09:00:00', NULL);
+INSERT INTO products (id, name, price, category_id, description, image, stock, created_at, user_id) VALUES(4, 'Botella de Agua Deportiva', 8999, 3, 'Botella térmica de acero inoxidable 750ml', 'https://acdn-us.mitiendanube.com/stores/001/463/508/products/botella-sport-73ffa503fea90d24a217037824379530-640-0.png', 25, '2025-01-15 16:45:00', NULL);
+INSERT INTO products (id, name, price, category_id, description, image, stock, created_at, user_id) VALUES(5, 'Mouse Gaming Logitech', 45999, 1, 'Mouse gaming con sensor de alta precisión', 'https://mexx-img-2019.s3.amazonaws.com/Mouse-Gamer-Logitech-G502-Lightspeed-Gaming_38348_1.jpeg', 12, '2025-01-18 11:20:00', NULL);
+INSERT INTO products (id, name, price, category_id, description, image, stock, created_at, user_id) VALUES(6, 'Zapatillas Running Adidas', 79999, 3, 'Zapatillas para running con tecnología Boost', 'https://showsport.vtexassets.com/arquivos/ids/828696-800-auto?v=638884649011600000&width=800&height=auto&aspect=true', 18, '2025-01-20 13:10:00', NULL);
+INSERT INTO products (id, name, price, category_id, description, image, stock, created_at, user_id) VALUES(7, 'Crema Hidratante Facial', 12999, 5, 'Crema hidratante con ácido hialurónico', 'https://www.uomax.com.ar/10279-home_default/crema-hidratante-facial-gel-ultra-hidrataci%C3%B3n-dermaglos-x-50-g.jpg', 20, '2025-01-25 08:05:00', NULL);
+INSERT INTO products (id, name, price, category_id, description, image, stock, created_at, user_id) VALUES(8, 'Mochila para Laptop', 35999, 6, 'Mochila resistente al agua para laptop hasta 15.6"', 'https://http2.mlstatic.com/D_696211-MLA96103252613_102025-C.jpg', 10, '2025-01-28 17:55:00', NULL);
@@ -0,0 +1,6 @@
+-- Indexes for the order lookups: a user's orders newest first (findByUserId, /orders of a user) and by status.
+-- products(category_id), products(user_id) and products(created_at) are already the leading columns of
+-- idx_products_category_id_created_id, idx_products_user_created_id and idx_products_created_id (V1), and
+-- usuarios(email) is indexed by uk_usuarios_email; single-column copies would only slow down writes.
+CREATE INDEX idx_orders_user_created ON orders (user_id, created_at);
+CREATE INDEX idx_orders_status ON orders (status);
@@ -0,0 +1,5 @@
+-- order_items belong to their order: deleting an order deletes its lines (OrderService deletes them as well,
+-- for schemas created by Hibernate). Lines left behind by deletes before this constraint are removed first.
+DELETE FROM order_items WHERE NOT EXISTS (SELECT 1 FROM orders o WHERE o.id = order_items.order_id);
+ALTER TABLE order_items ADD CONSTRAINT fk_order_items_order
+    FOREIGN KEY (order_id) REFERENCES orders (id) ON DELETE CASCADE;
@@ -0,0 +1,7 @@
+-- Version counters behind the collection ETags (CatalogVersions), shared by every application instance.
+-- Rows are created on first use.
+CREATE TABLE catalog_versions (
+    name    VARCHAR(64) NOT NULL,
+    version BIGINT      NOT NULL,
+    PRIMARY KEY (name)
+);